@@ -0,0 +1,100 @@
+package com.example.demo.auth.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.demo.shared.storage.ImageStore;
+import com.example.demo.shared.storage.ImageType;
+import com.example.demo.shared.storage.ThumbnailService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Entrega das imagens do ImageStore.
+ * O conteúdo de um hash nunca muda, então a resposta leva ETag igual ao hash e cache de um ano (immutable).
+ * Com o conector NIO do Tomcat o arquivo é enviado por sendfile; nos demais casos, por FileChannel.transferTo.
+ * As miniaturas saem sempre de um canal já aberto: o descarte LRU pode apagar o arquivo a qualquer momento,
+ * e o sendfile só abriria o arquivo depois que o controller retorna.
+ * @param getImage Envia a imagem do hash informado, ou 304 se o cliente já a possui.
+ * @param getThumbnail Envia a miniatura do hash em uma das larguras de ThumbnailService.WIDTHS (padrão 320).
+ */
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic().immutable().getHeaderValue();
+
+    private final ImageStore imageStore;
+    private final ThumbnailService thumbnailService;
+
+    @GetMapping("/{hash}")
+    public void getImage(@PathVariable String hash,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Path file = imageStore.locate(hash);
+        if (notModified(hash, request, response)) return;
+        send(file, request, response);
+    }
+
+    @GetMapping("/{hash}/thumbnail")
+    public void getThumbnail(@PathVariable String hash,
+                             @RequestParam(defaultValue = "320") int width,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        // Valida antes do 304, como getImage: hash inexistente ou largura inválida não viram 304
+        ThumbnailService.checkWidth(width);
+        imageStore.locate(hash);
+        if (notModified(hash + "-w" + width, request, response)) return;
+        try (FileChannel channel = thumbnailService.open(hash, width)) {
+            ImageType type = imageStore.typeOf(channel);
+            response.setContentType(type != null ? type.getMediaType() : "application/octet-stream");
+            response.setContentLengthLong(channel.size());
+            imageStore.transferTo(channel, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    // O conteúdo de um hash (e de cada miniatura dele) nunca muda: ETag fixo e cache permanente
+    private static boolean notModified(String etag, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return new ServletWebRequest(request, response).checkNotModified("\"" + etag + "\"");
+    }
+
+    private void send(Path file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ImageType type = imageStore.typeOf(file);
+        long size = Files.size(file);
+        response.setContentType(type != null ? type.getMediaType() : "application/octet-stream");
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // O Tomcat envia o arquivo direto do page cache para o socket depois que o controller retorna
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        imageStore.transferTo(file, Channels.newChannel(response.getOutputStream()));
+    }
+}
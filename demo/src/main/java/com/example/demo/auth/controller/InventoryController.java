@@ -0,0 +1,44 @@
+package com.example.demo.auth.controller;
+
+import java.security.Principal;
+
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.auth.dto.ReservationRequestDto;
+import com.example.demo.auth.dto.ReservationResponseDto;
+import com.example.demo.auth.service.InventoryService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reservas de estoque: reservar desconta o estoque na hora; a reserva precisa ser confirmada
+ * antes de expirar, ou as unidades voltam ao produto. Falta de estoque ou reserva já encerrada respondem 409.
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @PostMapping("/{productId}/reservations")
+    public ReservationResponseDto reserve(@PathVariable Long productId,
+                                          @RequestBody ReservationRequestDto dto,
+                                          Principal principal) {
+        return inventoryService.reserve(productId, dto.getQuantity(), principal.getName());
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ReservationResponseDto commit(@PathVariable Long reservationId, Principal principal) {
+        return inventoryService.commit(reservationId, principal.getName());
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    public ReservationResponseDto release(@PathVariable Long reservationId, Principal principal) {
+        return inventoryService.release(reservationId, principal.getName());
+    }
+}
@@ -1,8 +1,6 @@
 package com.example.demo.auth.controller;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -13,10 +11,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.auth.domain.ProductComment;
 import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.CursorPageResponseDto;
 import com.example.demo.auth.dto.ProductCommentRequestDto;
 import com.example.demo.auth.dto.ProductCommentResponseDto;
 import com.example.demo.auth.service.ProductCommentService;
@@ -65,18 +65,11 @@ public class ProductCommentController {
     }
 
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<ProductCommentResponseDto>> getComments(@PathVariable Long productId) {
-        List<ProductCommentResponseDto> dtos = commentService.getCommentsByProduct(productId)
-                .stream()
-                .map(comment -> {
-                    ProductCommentResponseDto dto = ProductCommentResponseDto.fromEntity(comment);
-                    User user = userService.findByIdEntity(comment.getUserId());
-                    dto.setUserName(user.getName() + " " + user.getLastName());
-                    dto.setCreatedAt(comment.getCreatedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-                    return dto;
-                })
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<CursorPageResponseDto<ProductCommentResponseDto>> getComments(
+            @PathVariable Long productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(commentService.getCommentsByProduct(productId, cursor, size));
     }
 
     @DeleteMapping("/{commentId}")
@@ -1,50 +1,93 @@
 package com.example.demo.auth.controller;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.auth.dto.ProductImportReportDto;
+import com.example.demo.auth.dto.ProductPageResponseDto;
 import com.example.demo.auth.dto.ProductRequestDto;
 import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.dto.ProductSummaryDto;
+import com.example.demo.auth.service.CatalogVersions;
+import com.example.demo.auth.service.ProductExportService;
+import com.example.demo.auth.service.ProductImportService;
 import com.example.demo.auth.service.ProductService;
 
 import jakarta.annotation.security.PermitAll;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Rotas de produtos. As leituras públicas respondem 304 a If-None-Match pela versão do catálogo
+ * (CatalogVersions), antes de consultar o serviço; o retorno null encerra a requisição com o 304.
+ * Na listagem, tagMode=all exige todas as tags informadas; o padrão (any) aceita qualquer uma.
+ * Com facets=true, a primeira página traz as contagens por tag, faixa de preço e avaliação do filtro.
+ * A importação em massa lê o corpo em streaming (application/x-ndjson ou text/csv) e responde com o relatório por linha.
+ * PATCH altera só os campos enviados; com "version" no corpo, PUT e PATCH respondem 409 se o produto mudou.
+ * A exportação escreve o catálogo da loja em NDJSON conforme lê do banco; com gzip=true o corpo vai comprimido.
+ */
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogVersions catalogVersions;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
     @PermitAll
     @GetMapping
-    public List<ProductResponseDto> listAllProducts(
+    public ProductPageResponseDto listAllProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) List<String> tags) {
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "any") String tagMode,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
 
-        return productService.listProducts(search, sortBy, tags);
+        if (request.checkNotModified(catalogVersions.etag(catalogVersions.catalog()))) return null;
+        return productService.listProducts(search, sortBy, tags, "all".equalsIgnoreCase(tagMode), facets,
+                cursor, size);
     }
 
-
-
     @PermitAll
     @GetMapping("/store/{storeId}")
-    public List<ProductResponseDto> getByStore(@PathVariable Long storeId) {
+    public List<ProductSummaryDto> getByStore(@PathVariable Long storeId, WebRequest request) {
+        if (request.checkNotModified(catalogVersions.etag(catalogVersions.store(storeId)))) return null;
         return productService.getByStore(storeId);
     }
 
+    @PermitAll
+    @GetMapping("/{id}")
+    public ProductResponseDto getById(@PathVariable Long id, WebRequest request) {
+        // a loja do produto só é conhecida depois da consulta, então vale a versão global
+        if (request.checkNotModified(catalogVersions.etag(catalogVersions.catalog()))) return null;
+        return productService.getById(id);
+    }
+
     @PostMapping("/store/{storeId}")
     public ProductResponseDto create(@PathVariable Long storeId,
                                      @RequestBody ProductRequestDto dto,
@@ -52,6 +95,29 @@ public class ProductController {
         return productService.create(storeId, dto, principal.getName());
     }
 
+    @PostMapping(value = "/store/{storeId}/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ProductImportReportDto importProducts(@PathVariable Long storeId,
+                                                 @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                 HttpServletRequest request,
+                                                 Principal principal) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        return productImportService.importProducts(storeId, principal.getName(), format, request.getInputStream());
+    }
+
+    @GetMapping(value = "/store/{storeId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts(@PathVariable Long storeId,
+                                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                                Principal principal) {
+        StreamingResponseBody body = productExportService.export(storeId, principal.getName(), gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"store-" + storeId + "-products.ndjson\"");
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+
     @PutMapping("/{id}")
     public ProductResponseDto update(@PathVariable Long id,
                                      @RequestBody ProductRequestDto dto,
@@ -59,6 +125,20 @@ public class ProductController {
         return productService.update(id, dto, principal.getName());
     }
 
+    @PatchMapping("/{id}")
+    public ProductResponseDto patch(@PathVariable Long id,
+                                    @RequestBody ProductRequestDto dto,
+                                    Principal principal) {
+        return productService.patch(id, dto, principal.getName());
+    }
+
+    @PostMapping("/{id}/image")
+    public ProductResponseDto uploadImage(@PathVariable Long id,
+                                          @RequestPart("file") MultipartFile file,
+                                          Principal principal) {
+        return productService.updateImage(id, file, principal.getName());
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable Long id, Principal principal) {
         productService.delete(id, principal.getName());
@@ -12,10 +12,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.example.demo.auth.domain.Product;
 import com.example.demo.auth.domain.ProductTag;
 import com.example.demo.auth.dto.ProductTagRequestDto;
 import com.example.demo.auth.dto.ProductTagResponseDto;
+import com.example.demo.auth.dto.TagResponseDto;
 import com.example.demo.auth.service.ProductTagService;
 
 @RestController
@@ -38,14 +38,7 @@ public class ProductTagController {
             return ResponseEntity.badRequest().build();
         }
 
-        ProductTag tag = new ProductTag();
-        tag.setTagName(dto.getTagName().trim());
-
-        Product product = new Product();
-        product.setId(productId);
-        tag.setProduct(product);
-
-        ProductTag saved = service.createTag(tag);
+        ProductTag saved = service.createTag(productId, dto.getTagName());
         return ResponseEntity.ok(ProductTagResponseDto.fromEntity(saved));
     }
 
@@ -65,13 +58,8 @@ public class ProductTagController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ProductTagResponseDto>> getAllTags() {
-        List<ProductTagResponseDto> dtos = service.getAllTags()
-                .stream()
-                .map(ProductTagResponseDto::fromEntity)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<List<TagResponseDto>> getAllTags() {
+        return ResponseEntity.ok(service.getAllTags());
     }
 }
 
@@ -10,15 +10,22 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.CursorPageResponseDto;
 import com.example.demo.auth.dto.StoreRequestDto;
 import com.example.demo.auth.dto.StoreResponseDto;
+import com.example.demo.auth.dto.StoreSummaryDto;
 import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.auth.service.CatalogVersions;
 import com.example.demo.auth.service.StoreService;
 
 /**
@@ -26,10 +33,13 @@ import com.example.demo.auth.service.StoreService;
  * @param storeService Serviço de loja para operações relacionadas às lojas.
  * @param userRepository Repositório de usuários para validação de permissões.
  * @param createStore Método para criar uma nova loja.
- * @param updateStore Método para atualizar uma loja existente.
+ * @param updateStore Método para atualizar uma loja existente (PUT ou PATCH; só os campos enviados mudam).
  * @param deleteStore Método para deletar uma loja existente.
  * @param findAll Método para listar todas as lojas.
  * @param findById Método para buscar uma loja por ID.
+ * @param getAllStoresPublic Diretório público de lojas: search (prefixo do nome), cursor e size.
+ * @param uploadImage Método para enviar a imagem de uma loja (multipart, campo "file").
+ * @param catalogVersions Versões do catálogo; as rotas públicas respondem 304 a If-None-Match antes de consultar o banco.
  */
 @RestController
 @RequestMapping("/api/store")
@@ -37,10 +47,13 @@ public class StoreController {
 
     private final StoreService storeService;
     private final UserRepository userRepository;
+    private final CatalogVersions catalogVersions;
 
-    public StoreController(StoreService storeService, UserRepository userRepository) {
+    public StoreController(StoreService storeService, UserRepository userRepository,
+                           CatalogVersions catalogVersions) {
         this.storeService = storeService;
         this.userRepository = userRepository;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -53,7 +66,7 @@ public class StoreController {
         }
     }
 
-    @PutMapping("/{id}")
+    @RequestMapping(value = "/{id}", method = {RequestMethod.PUT, RequestMethod.PATCH})
     public ResponseEntity<?> updateStore(@PathVariable Long id,
                                          @RequestBody StoreRequestDto dto,
                                          Principal principal) {
@@ -71,6 +84,24 @@ public class StoreController {
         }
     }
 
+    @PostMapping("/{id}/image")
+    public ResponseEntity<?> uploadImage(@PathVariable Long id,
+                                         @RequestPart("file") MultipartFile file,
+                                         Principal principal) {
+        User user = userRepository.findByEmail(principal.getName())
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+        boolean isAdmin = user.getRole().toString().equalsIgnoreCase("ADMIN");
+
+        try {
+            StoreResponseDto updated = storeService.updateImage(id, principal.getName(), file, isAdmin);
+            return ResponseEntity.ok(updated);
+        } catch (AccessDeniedException ex) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Acesso negado: " + ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteStore(@PathVariable Long id, Principal principal) {
         User user = userRepository.findByEmail(principal.getName())
@@ -108,12 +139,17 @@ public class StoreController {
     }
 
     @GetMapping("/public")
-    public List<StoreResponseDto> getAllStoresPublic() {
-        return storeService.findAllPublic();
+    public CursorPageResponseDto<StoreSummaryDto> getAllStoresPublic(@RequestParam(required = false) String search,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size,
+                                                                     WebRequest request) {
+        if (request.checkNotModified(catalogVersions.etag(catalogVersions.catalog()))) return null;
+        return storeService.findPublicDirectory(search, cursor, size);
     }
 
     @GetMapping("/public/{id}")
-    public ResponseEntity<?> getPublicStoreById(@PathVariable Long id) {
+    public ResponseEntity<?> getPublicStoreById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(catalogVersions.etag(catalogVersions.store(id)))) return null;
         try {
             StoreResponseDto store = storeService.findByIdPublic(id);
             if (store == null) {
@@ -0,0 +1,42 @@
+package com.example.demo.auth.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Progresso da migração de imagens base64 para o ImageStore, uma linha por tabela migrada.
+ * lastId é o maior id já processado; a migração retoma a partir dele depois de um reinício.
+ */
+@Entity
+@Table(name = "image_migration_checkpoint")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ImageMigrationCheckpoint {
+
+    @Id
+    @Column(name = "table_name", length = 64)
+    private String tableName;
+
+    @Column(name = "last_id", nullable = false)
+    @Builder.Default
+    private Long lastId = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long migrated = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long failed = 0L;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean completed = false;
+}
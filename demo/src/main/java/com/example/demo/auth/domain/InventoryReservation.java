@@ -0,0 +1,55 @@
+package com.example.demo.auth.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Reserva de estoque de um produto. O estoque é descontado na criação (PENDING); a confirmação só muda o
+ * estado e a liberação ou a expiração devolvem as unidades. As transições são UPDATEs condicionais ao
+ * estado atual, então cada reserva devolve o estoque no máximo uma vez.
+ */
+@Entity
+@Table(name = "inventory_reservation", indexes = {
+    @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.auth.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Delta de avaliação ainda não aplicado aos agregados do produto (modo de ingestão assíncrona).
+ * É gravado na mesma transação do voto e removido quando o flush aplica o delta,
+ * então deltas pendentes sobrevivem a um reinício da aplicação.
+ */
+@Entity
+@Table(name = "pending_rating_delta")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class PendingRatingDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long sumDelta;
+
+    @Column(nullable = false)
+    private Long countDelta;
+
+    @Column(name = "d1", nullable = false)
+    private Long d1;
+
+    @Column(name = "d2", nullable = false)
+    private Long d2;
+
+    @Column(name = "d3", nullable = false)
+    private Long d3;
+
+    @Column(name = "d4", nullable = false)
+    private Long d4;
+
+    @Column(name = "d5", nullable = false)
+    private Long d5;
+}
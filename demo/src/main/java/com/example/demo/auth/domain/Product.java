@@ -3,6 +3,9 @@ package com.example.demo.auth.domain;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,9 +13,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -20,6 +26,14 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_product_price_id", columnList = "price, id"),
+    @Index(name = "idx_product_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_product_name", columnList = "name")
+})
+// UPDATE só das colunas alteradas: editar o produto não regrava quantity, que muda por UPDATE condicional,
+// nem a coluna LONGTEXT de imagem quando só o preço muda
+@DynamicUpdate
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor @Builder
 public class Product {
@@ -28,6 +42,12 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Controle otimista das edições do vendedor; estoque e agregados de avaliação mudam por UPDATE em massa,
+    // que não incrementa a versão, então reservas e votos não invalidam um formulário aberto
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     private String name;
     private Double price;
     private Integer quantity;
@@ -35,8 +55,12 @@ public class Product {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Valor legado (URL externa ou base64 antigo); imagens novas ficam no ImageStore e só o hash fica aqui
     @Column(columnDefinition = "LONGTEXT")
     private String imageUrl;
+
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
     private Double discount;
 
     private LocalDateTime createdAt;
@@ -49,6 +73,37 @@ public class Product {
     @Builder.Default
     private Double averageRating = 0.0;
 
+    // Agregados das avaliações, atualizados por delta a cada voto (ver ProductRepository.applyRatingDelta)
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    @Builder.Default
+    private Long ratingCount = 0L;
+
+    @Column(name = "rating_1_count", nullable = false)
+    @Builder.Default
+    private Long rating1Count = 0L;
+
+    @Column(name = "rating_2_count", nullable = false)
+    @Builder.Default
+    private Long rating2Count = 0L;
+
+    @Column(name = "rating_3_count", nullable = false)
+    @Builder.Default
+    private Long rating3Count = 0L;
+
+    @Column(name = "rating_4_count", nullable = false)
+    @Builder.Default
+    private Long rating4Count = 0L;
+
+    @Column(name = "rating_5_count", nullable = false)
+    @Builder.Default
+    private Long rating5Count = 0L;
+
+    // Tags de uma página inteira são carregadas em um único IN (...) em vez de uma consulta por produto
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     private List<ProductTag> tags;
 }
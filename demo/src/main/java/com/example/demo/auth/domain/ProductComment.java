@@ -6,10 +6,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "product_comments")
+@Table(
+    name = "product_comments",
+    // Feed do produto em ordem cronológica reversa: a busca e a ordenação saem direto do índice
+    indexes = @Index(name = "idx_comment_product_created_id", columnList = "product_id, created_at, id")
+)
 public class ProductComment {
 
     @Id
@@ -5,17 +5,25 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * Associação produto ↔ tag do dicionário. A chave única (product_id, tag_id) também serve de índice
+ * por produto; idx_product_tag_tag atende o filtro por tag.
+ */
 @Entity
-@Table(name = "product_tags")
+@Table(name = "product_tag",
+       uniqueConstraints = @UniqueConstraint(name = "uk_product_tag", columnNames = {"product_id", "tag_id"}),
+       indexes = @Index(name = "idx_product_tag_tag", columnList = "tag_id"))
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,9 +34,15 @@ public class ProductTag {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private String tagName;
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "tag_id", nullable = false)
+    private Tag tag;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id") 
     private Product product; 
+
+    public String getTagName() {
+        return tag != null ? tag.getName() : null;
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.demo.auth.domain;
+
+/**
+ * Estados de uma reserva de estoque.
+ * @param PENDING Unidades já descontadas de product.quantity, aguardando confirmação até expires_at.
+ * @param COMMITTED Compra confirmada; as unidades não voltam ao estoque.
+ * @param RELEASED Reserva cancelada pelo usuário; as unidades voltaram ao estoque.
+ * @param EXPIRED Reserva vencida sem confirmação; as unidades voltaram ao estoque.
+ */
+public enum ReservationStatus {
+    PENDING,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -1,14 +1,18 @@
 package com.example.demo.auth.domain;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -19,9 +23,17 @@ import lombok.Setter;
  * Entidade que representa uma loja no sistema.
  * Contém informações como nome, endereço, contato, imagem e descrição da loja,
  * além de uma referência ao usuário que é o proprietário da loja.
+ * A versão (@Version) faz uma edição concorrente falhar com 409 em vez de sobrescrever a outra,
+ * e o UPDATE leva só as colunas alteradas (@DynamicUpdate).
+ * O índice (name, id) atende o diretório público: busca por prefixo e paginação por keyset na mesma faixa;
+ * o de owner_id atende "minhas lojas".
  */
 @Entity
-@Table(name = "stores")
+@DynamicUpdate
+@Table(name = "stores", indexes = {
+    @Index(name = "idx_stores_name_id", columnList = "name, id"),
+    @Index(name = "idx_stores_owner_id", columnList = "owner_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,12 +45,20 @@ public class Store {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     private String name;
     private String address;
     private String contact;
     
+    // Valor legado (URL externa ou base64 antigo); imagens novas ficam no ImageStore e só o hash fica aqui
     @Column(columnDefinition = "LONGTEXT")
     private String imageUrl;
+
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
     private String description;
 
     @ManyToOne(fetch = FetchType.LAZY)
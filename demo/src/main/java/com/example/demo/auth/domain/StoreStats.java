@@ -0,0 +1,62 @@
+package com.example.demo.auth.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Estatísticas pré-calculadas dos produtos de uma loja (uma linha por loja).
+ * Guarda somas em vez de médias para que cada escrita seja um incremento atômico
+ * (ver StoreStatsRepository); as médias são calculadas na leitura.
+ * A média de avaliação é ponderada pelos votos: soma das notas / quantidade de votos da loja.
+ */
+@Entity
+@Table(name = "store_stats")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class StoreStats {
+
+    @Id
+    @Column(name = "store_id")
+    private Long storeId;
+
+    @Column(name = "product_count", nullable = false)
+    @Builder.Default
+    private Long productCount = 0L;
+
+    @Column(name = "price_sum", nullable = false)
+    @Builder.Default
+    private Double priceSum = 0.0;
+
+    @Column(name = "stock_sum", nullable = false)
+    @Builder.Default
+    private Long stockSum = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    @Builder.Default
+    private Long ratingSum = 0L;
+
+    @Column(name = "rating_count", nullable = false)
+    @Builder.Default
+    private Long ratingCount = 0L;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+
+    // null quando não há produtos/votos, como os campos da resposta antes de store_stats
+    public Double getAveragePrice() {
+        return productCount <= 0 ? null : priceSum / productCount;
+    }
+
+    public Double getAverageRating() {
+        return ratingCount <= 0 ? null : (double) ratingSum / ratingCount;
+    }
+}
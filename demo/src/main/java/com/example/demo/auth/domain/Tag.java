@@ -0,0 +1,39 @@
+package com.example.demo.auth.domain;
+
+import org.hibernate.annotations.BatchSize;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Dicionário de tags: cada nome aparece uma única vez e os produtos o referenciam por product_tag.
+ * NAME_LENGTH é o limite validado na criação e na importação, e o corte aplicado aos nomes legados.
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(name = "uk_tag_name", columnNames = "name"))
+@BatchSize(size = 100)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Tag {
+
+    public static final int NAME_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = NAME_LENGTH)
+    private String name;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.auth.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Página de resultados paginada por cursor (keyset).
+ * @param items Itens da página atual.
+ * @param nextCursor Token opaco para buscar a próxima página, ou null quando não há mais resultados.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class CursorPageResponseDto<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.example.demo.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagem de um valor de faceta. Nas faixas de preço, min (inclusivo) e max (exclusivo; null na última faixa)
+ * delimitam a faixa; nas avaliações, value é o número de estrelas (média arredondada para baixo, 0 sem avaliação).
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacetCountDto {
+    private String value;
+    private Double min;
+    private Double max;
+    private int count;
+
+    public FacetCountDto(String value, int count) {
+        this(value, null, null, count);
+    }
+}
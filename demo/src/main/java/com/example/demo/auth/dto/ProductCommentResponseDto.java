@@ -1,9 +1,15 @@
 package com.example.demo.auth.dto;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
 import com.example.demo.auth.domain.ProductComment;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class ProductCommentResponseDto {
 
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
     private Long id;
     private Long productId;
     private Long userId;
@@ -11,6 +17,10 @@ public class ProductCommentResponseDto {
     private String comment;
     private String createdAt;
 
+    // Valor exato de createdAt, usado para montar o cursor do feed; não é serializado
+    @JsonIgnore
+    private LocalDateTime createdAtValue;
+
     public ProductCommentResponseDto() {}
 
     public ProductCommentResponseDto(Long id, Long productId, Long userId, String comment) {
@@ -20,6 +30,17 @@ public class ProductCommentResponseDto {
         this.comment = comment;
     }
 
+    /**
+     * Usado pela projeção JPQL (SELECT new ...) que já traz o nome do autor no mesmo SELECT.
+     */
+    public ProductCommentResponseDto(Long id, Long productId, Long userId, String userName,
+                                     String comment, LocalDateTime createdAt) {
+        this(id, productId, userId, comment);
+        this.userName = userName;
+        this.createdAtValue = createdAt;
+        this.createdAt = createdAt != null ? createdAt.format(CREATED_AT_FORMAT) : null;
+    }
+
     public static ProductCommentResponseDto fromEntity(ProductComment comment) {
         ProductCommentResponseDto dto = new ProductCommentResponseDto();
         dto.setId(comment.getId());
@@ -27,7 +48,7 @@ public class ProductCommentResponseDto {
         dto.setUserId(comment.getUserId());
         dto.setComment(comment.getComment());
         if (comment.getCreatedAt() != null) {
-            dto.setCreatedAt(comment.getCreatedAt().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+            dto.setCreatedAt(comment.getCreatedAt().format(CREATED_AT_FORMAT));
         }
         return dto;
     }
@@ -49,4 +70,7 @@ public class ProductCommentResponseDto {
 
     public String getCreatedAt() { return createdAt; }
     public void setCreatedAt(String createdAt) { this.createdAt = createdAt; }
+
+    @JsonIgnore
+    public LocalDateTime getCreatedAtValue() { return createdAtValue; }
 }
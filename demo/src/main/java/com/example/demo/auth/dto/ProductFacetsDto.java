@@ -0,0 +1,24 @@
+package com.example.demo.auth.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contagens por faceta do resultado filtrado da listagem de produtos.
+ * @param total Quantidade de produtos que atendem ao filtro.
+ * @param tags Tags presentes no resultado, da mais frequente para a menos frequente.
+ * @param prices Faixas de preço (todas, inclusive as vazias).
+ * @param ratings Estrelas de 0 a 5.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsDto {
+    private int total;
+    private List<FacetCountDto> tags;
+    private List<FacetCountDto> prices;
+    private List<FacetCountDto> ratings;
+}
@@ -0,0 +1,16 @@
+package com.example.demo.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Erro de uma linha da importação (a numeração começa em 1 e, no CSV, conta o cabeçalho).
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDto {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,37 @@
+package com.example.demo.auth.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Resultado de uma importação em massa.
+ * @param imported Produtos gravados.
+ * @param failed Linhas rejeitadas (validação ou falha ao gravar o lote).
+ * @param errors Erros por linha, limitados aos primeiros MAX_ERRORS.
+ * @param errorsTruncated Indica que houve mais erros do que os listados.
+ */
+@Getter
+public class ProductImportReportDto {
+
+    public static final int MAX_ERRORS = 1000;
+
+    private int imported;
+    private int failed;
+    private final List<ProductImportErrorDto> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    public void imported(int rows) {
+        imported += rows;
+    }
+
+    public void fail(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ProductImportErrorDto(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
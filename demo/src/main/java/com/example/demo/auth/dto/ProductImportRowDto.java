@@ -0,0 +1,15 @@
+package com.example.demo.auth.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Linha da importação em massa: os campos do cadastro de produto mais as tags.
+ * No CSV, as tags ficam em uma única coluna separadas por "|".
+ */
+@Getter @Setter
+public class ProductImportRowDto extends ProductRequestDto {
+    private List<String> tags;
+}
@@ -0,0 +1,26 @@
+package com.example.demo.auth.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Página da listagem de produtos; na primeira página, quando pedidas, traz também as facetas do filtro.
+ * @param facets Contagens por tag, faixa de preço e avaliação, ou null (omitido no JSON).
+ */
+@Getter @Setter
+@NoArgsConstructor
+public class ProductPageResponseDto extends CursorPageResponseDto<ProductSummaryDto> {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacetsDto facets;
+
+    public ProductPageResponseDto(List<ProductSummaryDto> items, String nextCursor, ProductFacetsDto facets) {
+        super(items, nextCursor);
+        this.facets = facets;
+    }
+}
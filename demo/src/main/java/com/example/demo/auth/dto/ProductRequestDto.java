@@ -11,4 +11,6 @@ public class ProductRequestDto {
     private String description;
     private String imageUrl;
     private Double discount;
+    // Versão lida pelo cliente; se informada e diferente da atual, a edição responde 409
+    private Long version;
 }
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import com.example.demo.auth.domain.Product;
+import com.example.demo.shared.storage.ImageStore;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,29 +23,38 @@ public class ProductResponseDto {
     private Integer quantity;
     private String description;
     private String imageUrl;
+    private String thumbnailUrl;
     private Double discount;
     private String createdAt;
     private Long storeId;
     private String storeName;
     private Double averageRating;
     private List<String> tags;
+    private Long version;
 
     public static ProductResponseDto fromEntity(Product product) {
+        return fromEntity(product, product.getTags() != null
+                ? product.getTags().stream().map(t -> t.getTagName()).collect(Collectors.toList())
+                : List.of());
+    }
+
+    // Tags já carregadas à parte (ex.: exportação em streaming), sem inicializar a coleção da entidade
+    public static ProductResponseDto fromEntity(Product product, List<String> tags) {
         return ProductResponseDto.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .price(product.getPrice())
                 .quantity(product.getQuantity())
                 .description(product.getDescription())
-                .imageUrl(product.getImageUrl())
+                .imageUrl(ImageStore.publicUrl(product.getImageHash(), product.getImageUrl()))
+                .thumbnailUrl(ImageStore.thumbnailUrl(product.getImageHash()))
                 .discount(product.getDiscount())
                 .createdAt(product.getCreatedAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
                 .storeId(product.getStore().getId())
                 .storeName(product.getStore().getName())
                 .averageRating(product.getAverageRating())
-                .tags(product.getTags() != null 
-                        ? product.getTags().stream().map(t -> t.getTagName()).collect(Collectors.toList()) 
-                        : List.of())
+                .tags(tags)
+                .version(product.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,61 @@
+package com.example.demo.auth.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.example.demo.shared.storage.ImageStore;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumo de produto usado nas listagens (catálogo e produtos da loja).
+ * Traz só as colunas exibidas no card, sem description (TEXT) e tags; de imageUrl (LONGTEXT) só vem a URL
+ * externa legada, nunca um data URI ainda não migrado. O produto completo fica em GET /api/products/{id}
+ * (ProductResponseDto).
+ */
+@Getter
+@NoArgsConstructor
+public class ProductSummaryDto {
+
+    private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private Long id;
+    private String name;
+    private Double price;
+    private Double discount;
+    private Double averageRating;
+    private String createdAt;
+    private Long storeId;
+    private String storeName;
+    private String imageUrl;
+    private String thumbnailUrl;
+
+    // Valor exato de createdAt, usado para montar o cursor da listagem; não é serializado
+    @JsonIgnore
+    private LocalDateTime createdAtValue;
+
+    /**
+     * Usado pela projeção (SELECT new ...) que lê só essas colunas de product e stores.
+     * legacyImageUrl só é preenchido quando não há hash e o valor não é um data URI.
+     */
+    public ProductSummaryDto(Long id, String name, Double price, Double discount, Double averageRating,
+                             LocalDateTime createdAt, Long storeId, String storeName, String imageHash,
+                             String legacyImageUrl) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.discount = discount;
+        this.averageRating = averageRating;
+        this.createdAtValue = createdAt;
+        this.createdAt = createdAt != null ? createdAt.format(CREATED_AT_FORMAT) : null;
+        this.storeId = storeId;
+        this.storeName = storeName;
+        this.imageUrl = ImageStore.publicUrl(imageHash, legacyImageUrl);
+        this.thumbnailUrl = ImageStore.thumbnailUrl(imageHash);
+    }
+
+    @JsonIgnore
+    public LocalDateTime getCreatedAtValue() { return createdAtValue; }
+}
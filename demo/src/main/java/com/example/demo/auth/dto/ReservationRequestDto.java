@@ -0,0 +1,8 @@
+package com.example.demo.auth.dto;
+
+import lombok.Data;
+
+@Data
+public class ReservationRequestDto {
+    private Integer quantity;
+}
@@ -0,0 +1,33 @@
+package com.example.demo.auth.dto;
+
+import java.time.format.DateTimeFormatter;
+
+import com.example.demo.auth.domain.InventoryReservation;
+import com.example.demo.auth.domain.ReservationStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ReservationResponseDto {
+
+    private Long id;
+    private Long productId;
+    private Integer quantity;
+    private ReservationStatus status;
+    private String expiresAt;
+
+    public static ReservationResponseDto fromEntity(InventoryReservation reservation) {
+        return ReservationResponseDto.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProductId())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")))
+                .build();
+    }
+}
@@ -14,4 +14,6 @@ public class StoreRequestDto {
     private String contact;
     private String imageUrl;
     private String description;
+    // Versão lida pelo cliente; se informada e diferente da atual, a edição responde 409
+    private Long version;
 }
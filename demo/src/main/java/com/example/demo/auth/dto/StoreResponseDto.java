@@ -1,7 +1,10 @@
 package com.example.demo.auth.dto;
 
 import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.StoreStats;
+import com.example.demo.shared.storage.ImageStore;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,16 +12,41 @@ import lombok.Data;
  * Data Transfer Object para respostas contendo informações da loja.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
+@AllArgsConstructor
 public class StoreResponseDto {
     private Long id;
     private String name;
     private String address;
     private String contact; 
     private String imageUrl;
+    private String thumbnailUrl;
     private String description;
     private Long ownerId;
     private String ownerEmail;
+    private Long version;
+    // Estatísticas pré-calculadas (store_stats); ausentes até a primeira reconciliação de lojas antigas
+    private Long productCount;
+    private Double averagePrice;
+    private Double averageRating;
+    private Long totalStock;
+
+    /**
+     * Usado pela projeção (SELECT new ...) de "minhas lojas", que lê stores com o dono no mesmo JOIN.
+     */
+    public StoreResponseDto(Long id, String name, String address, String contact, String imageHash,
+                            String imageUrl, String description, Long ownerId, String ownerEmail, Long version) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.contact = contact;
+        this.imageUrl = ImageStore.publicUrl(imageHash, imageUrl);
+        this.thumbnailUrl = ImageStore.thumbnailUrl(imageHash);
+        this.description = description;
+        this.ownerId = ownerId;
+        this.ownerEmail = ownerEmail;
+        this.version = version;
+    }
 
     public static StoreResponseDto fromEntity(Store store) {
         return StoreResponseDto.builder()
@@ -26,10 +54,22 @@ public class StoreResponseDto {
                 .name(store.getName())
                 .address(store.getAddress())
                 .contact(store.getContact())
-                .imageUrl(store.getImageUrl())
+                .imageUrl(ImageStore.publicUrl(store.getImageHash(), store.getImageUrl()))
+                .thumbnailUrl(ImageStore.thumbnailUrl(store.getImageHash()))
                 .description(store.getDescription())
                 .ownerId(store.getOwner().getId())
                 .ownerEmail(store.getOwner().getEmail())
+                .version(store.getVersion())
                 .build();
     }
+
+    public StoreResponseDto withStats(StoreStats stats) {
+        if (stats != null) {
+            this.productCount = stats.getProductCount();
+            this.averagePrice = stats.getAveragePrice();
+            this.averageRating = stats.getAverageRating();
+            this.totalStock = stats.getStockSum();
+        }
+        return this;
+    }
 }
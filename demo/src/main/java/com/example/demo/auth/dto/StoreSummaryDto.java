@@ -0,0 +1,45 @@
+package com.example.demo.auth.dto;
+
+import com.example.demo.shared.storage.ImageStore;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumo de loja usado no diretório público (GET /api/store/public).
+ * Traz só as colunas exibidas no card e as estatísticas de store_stats, sem o dono; de imageUrl (LONGTEXT)
+ * só vem a URL externa legada, nunca um data URI ainda não migrado.
+ * A loja completa fica em GET /api/store/public/{id} (StoreResponseDto).
+ */
+@Getter
+@NoArgsConstructor
+public class StoreSummaryDto {
+
+    private Long id;
+    private String name;
+    private String address;
+    private String contact;
+    private String description;
+    private String imageUrl;
+    private String thumbnailUrl;
+    private Long productCount;
+    private Double averageRating;
+
+    /**
+     * Usado pela projeção (SELECT new ...) que lê só essas colunas de stores e store_stats.
+     * legacyImageUrl só é preenchido quando não há hash e o valor não é um data URI.
+     */
+    public StoreSummaryDto(Long id, String name, String address, String contact, String description,
+                           String imageHash, String legacyImageUrl,
+                           Long productCount, Long ratingSum, Long ratingCount) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.contact = contact;
+        this.description = description;
+        this.imageUrl = ImageStore.publicUrl(imageHash, legacyImageUrl);
+        this.thumbnailUrl = ImageStore.thumbnailUrl(imageHash);
+        this.productCount = productCount;
+        this.averageRating = ratingCount == null || ratingCount <= 0 ? null : (double) ratingSum / ratingCount;
+    }
+}
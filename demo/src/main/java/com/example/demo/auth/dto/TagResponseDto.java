@@ -0,0 +1,17 @@
+package com.example.demo.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrada do dicionário de tags com a quantidade de produtos que a usam.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagResponseDto {
+    private Long id;
+    private String tagName;
+    private Long productCount;
+}
@@ -0,0 +1,8 @@
+package com.example.demo.auth.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.demo.auth.domain.ImageMigrationCheckpoint;
+
+public interface ImageMigrationCheckpointRepository extends JpaRepository<ImageMigrationCheckpoint, String> {
+}
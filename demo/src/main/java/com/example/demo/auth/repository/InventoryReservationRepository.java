@@ -0,0 +1,43 @@
+package com.example.demo.auth.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.auth.domain.InventoryReservation;
+import com.example.demo.auth.domain.ReservationStatus;
+
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    /**
+     * Muda o estado só se a reserva ainda estiver em "from"; retorna 0 quando outra transação já fez a transição.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") ReservationStatus from,
+                   @Param("to") ReservationStatus to);
+
+    /**
+     * Confirma a reserva pendente que ainda não venceu (a expiração pode não ter passado por ela ainda).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE InventoryReservation r SET r.status = com.example.demo.auth.domain.ReservationStatus.COMMITTED
+           WHERE r.id = :id AND r.status = com.example.demo.auth.domain.ReservationStatus.PENDING
+             AND r.expiresAt > :now
+           """)
+    int commitPending(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("""
+           SELECT r FROM InventoryReservation r
+           WHERE r.status = com.example.demo.auth.domain.ReservationStatus.PENDING AND r.expiresAt <= :now
+           ORDER BY r.expiresAt
+           """)
+    List<InventoryReservation> findExpired(@Param("now") LocalDateTime now, Pageable page);
+}
@@ -0,0 +1,51 @@
+package com.example.demo.auth.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.auth.domain.PendingRatingDelta;
+
+public interface PendingRatingDeltaRepository extends JpaRepository<PendingRatingDelta, Long> {
+
+    /**
+     * Ids dos deltas já confirmados, em ordem. O flush trabalha só com estes ids: um voto com id menor
+     * que ainda não fez commit não aparece aqui e fica para o próximo flush (um corte por MAX(id) o apagaria
+     * sem somar).
+     */
+    @Query("SELECT d.id FROM PendingRatingDelta d ORDER BY d.id")
+    List<Long> findPendingIds(Limit limit);
+
+    /**
+     * Soma os deltas informados, uma linha por produto.
+     */
+    @Query("""
+           SELECT d.productId AS productId,
+                  SUM(d.sumDelta) AS sumDelta, SUM(d.countDelta) AS countDelta,
+                  SUM(d.d1) AS d1, SUM(d.d2) AS d2, SUM(d.d3) AS d3, SUM(d.d4) AS d4, SUM(d.d5) AS d5
+           FROM PendingRatingDelta d
+           WHERE d.id IN :ids
+           GROUP BY d.productId
+           """)
+    List<CoalescedRatingDelta> coalesce(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM PendingRatingDelta d WHERE d.id IN :ids")
+    int deleteApplied(@Param("ids") Collection<Long> ids);
+
+    interface CoalescedRatingDelta {
+        Long getProductId();
+        Long getSumDelta();
+        Long getCountDelta();
+        Long getD1();
+        Long getD2();
+        Long getD3();
+        Long getD4();
+        Long getD5();
+    }
+}
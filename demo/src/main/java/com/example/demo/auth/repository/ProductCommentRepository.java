@@ -1,12 +1,48 @@
 package com.example.demo.auth.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.auth.domain.ProductComment;
+import com.example.demo.auth.dto.ProductCommentResponseDto;
 
 public interface ProductCommentRepository extends JpaRepository<ProductComment, Long> {
     List<ProductComment> findByProductId(Long productId);
     List<ProductComment> findByUserId(Long userId);
+
+    /**
+     * Primeira página do feed de comentários do produto (mais recentes primeiro),
+     * já com o nome do autor, resolvido no mesmo SELECT com JOIN em users.
+     */
+    @Query("""
+           SELECT new com.example.demo.auth.dto.ProductCommentResponseDto(
+                      c.id, c.productId, c.userId, CONCAT(u.name, ' ', u.lastName), c.comment, c.createdAt)
+           FROM ProductComment c
+           LEFT JOIN User u ON u.id = c.userId
+           WHERE c.productId = :productId
+           ORDER BY c.createdAt DESC, c.id DESC
+           """)
+    List<ProductCommentResponseDto> findFeed(@Param("productId") Long productId, Limit limit);
+
+    /**
+     * Próximas páginas do feed, a partir do último (createdAt, id) entregue.
+     */
+    @Query("""
+           SELECT new com.example.demo.auth.dto.ProductCommentResponseDto(
+                      c.id, c.productId, c.userId, CONCAT(u.name, ' ', u.lastName), c.comment, c.createdAt)
+           FROM ProductComment c
+           LEFT JOIN User u ON u.id = c.userId
+           WHERE c.productId = :productId
+             AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :lastId))
+           ORDER BY c.createdAt DESC, c.id DESC
+           """)
+    List<ProductCommentResponseDto> findFeedAfter(@Param("productId") Long productId,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("lastId") Long lastId,
+                                                  Limit limit);
 }
@@ -1,29 +1,106 @@
 package com.example.demo.auth.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.dto.ProductSummaryDto;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductSummaryQueries {
 
-    List<Product> findByStore_Id(Long storeId);
+    @Query("""
+           SELECT new com.example.demo.auth.dto.ProductSummaryDto(
+               p.id, p.name, p.price, p.discount, p.averageRating, p.createdAt, s.id, s.name, p.imageHash,
+               CASE WHEN p.imageHash IS NULL AND p.imageUrl NOT LIKE 'data:%' THEN p.imageUrl END)
+           FROM Product p JOIN p.store s
+           WHERE s.id = :storeId
+           ORDER BY p.id
+           """)
+    List<ProductSummaryDto> findSummariesByStoreId(@Param("storeId") Long storeId);
 
-    @Query("SELECT p FROM Product p WHERE " +
-       "(:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
-       " OR LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))")
-List<Product> searchProducts(@Param("search") String search);
+    /**
+     * Aplica o delta de um voto aos agregados de avaliação em um único UPDATE atômico, sem reler as avaliações.
+     * A média vem primeiro e usa apenas os valores antigos + delta: o MySQL avalia o SET da esquerda para a direita
+     * enxergando os valores já alterados, então essa ordem mantém o resultado correto em qualquer banco.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+           UPDATE Product p SET
+               p.averageRating = CASE WHEN p.ratingCount + :countDelta = 0 THEN 0.0
+                                      ELSE (p.ratingSum + :sumDelta) * 1.0 / (p.ratingCount + :countDelta) END,
+               p.ratingSum = p.ratingSum + :sumDelta,
+               p.ratingCount = p.ratingCount + :countDelta,
+               p.rating1Count = p.rating1Count + :d1,
+               p.rating2Count = p.rating2Count + :d2,
+               p.rating3Count = p.rating3Count + :d3,
+               p.rating4Count = p.rating4Count + :d4,
+               p.rating5Count = p.rating5Count + :d5
+           WHERE p.id = :productId
+           """)
+    int applyRatingDelta(@Param("productId") Long productId,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("countDelta") long countDelta,
+                         @Param("d1") long d1, @Param("d2") long d2, @Param("d3") long d3,
+                         @Param("d4") long d4, @Param("d5") long d5);
 
-@Query("""
-       SELECT DISTINCT p FROM Product p 
-       JOIN p.tags t 
-       WHERE t.tagName IN :tags
-         AND (:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')))
-       """)
-List<Product> findByTagsAndSearch(@Param("tags") List<String> tags,
-                                  @Param("search") String search);
+    /**
+     * Desconta o estoque só se houver unidades suficientes: a condição e a escrita são um único UPDATE,
+     * então reservas concorrentes nunca deixam quantity negativo. Retorna 0 quando falta estoque.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :amount WHERE p.id = :productId AND p.quantity >= :amount")
+    int takeStock(@Param("productId") Long productId, @Param("amount") int amount);
+
+    /**
+     * Soma (ou subtrai, com amount negativo) ao estoque atual, sem sobrescrever descontos concorrentes.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE Product p SET p.quantity = COALESCE(p.quantity, 0) + :amount
+           WHERE p.id = :productId AND COALESCE(p.quantity, 0) + :amount >= 0
+           """)
+    int adjustStock(@Param("productId") Long productId, @Param("amount") int amount);
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :productId")
+    Optional<Integer> findQuantity(@Param("productId") Long productId);
+
+    @Query("SELECT p.averageRating FROM Product p WHERE p.id = :productId")
+    Optional<Double> findAverageRating(@Param("productId") Long productId);
+
+    /**
+     * Recalcula os agregados a partir de product_rating para produtos que têm avaliações
+     * mas ainda não têm agregados (linhas anteriores à criação das colunas).
+     * Produtos com deltas pendentes são ignorados, pois o flush já vai contabilizá-los.
+     */
+    @Modifying
+    @Query("""
+           UPDATE Product p SET
+               p.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM ProductRating r WHERE r.product = p),
+               p.ratingCount = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p),
+               p.rating1Count = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p AND r.rating = 1),
+               p.rating2Count = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p AND r.rating = 2),
+               p.rating3Count = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p AND r.rating = 3),
+               p.rating4Count = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p AND r.rating = 4),
+               p.rating5Count = (SELECT COUNT(r) FROM ProductRating r WHERE r.product = p AND r.rating = 5),
+               p.averageRating = (SELECT COALESCE(AVG(r.rating), 0.0) FROM ProductRating r WHERE r.product = p)
+           WHERE p.ratingCount = 0
+             AND EXISTS (SELECT 1 FROM ProductRating r WHERE r.product = p)
+             AND NOT EXISTS (SELECT 1 FROM PendingRatingDelta d WHERE d.productId = p.id)
+           """)
+    int backfillRatingAggregates();
+
+    /**
+     * Relevância de um produto com o mesmo arredondamento da ordenação (RELEVANCE_SCALE), usada no cursor.
+     */
+    @Query("SELECT round(fulltext_match(p.name, p.description, :query), " + ProductSpecifications.RELEVANCE_SCALE
+            + ") FROM Product p WHERE p.id = :id")
+    Double relevanceOf(@Param("id") Long id, @Param("query") String query);
 
 }
@@ -0,0 +1,30 @@
+package com.example.demo.auth.repository;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Converte o texto digitado na busca em uma consulta FULLTEXT do MySQL (BOOLEAN MODE).
+ * Cada termo vira obrigatório e com prefixo ("+term*"), então "cam azu" encontra "Camisa Azul".
+ * Termos menores que o tamanho mínimo de token do InnoDB (3) não entram no índice e são descartados.
+ */
+public final class ProductSearchQuery {
+
+    public static final int MIN_TOKEN_SIZE = 3;
+
+    private ProductSearchQuery() {}
+
+    /**
+     * @return a consulta em BOOLEAN MODE, ou null se nenhum termo puder ser usado no índice.
+     */
+    public static String toBooleanQuery(String search) {
+        if (search == null) return null;
+
+        String query = Arrays.stream(search.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> term.length() >= MIN_TOKEN_SIZE)
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+
+        return query.isEmpty() ? null : query;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.auth.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Ordenações suportadas na listagem de produtos.
+ * Cada ordenação usa o id como desempate, na mesma direção, para que o cursor (keyset) seja estável
+ * e a consulta percorra os índices compostos (price, id) e (created_at, id).
+ */
+public enum ProductSort {
+    DEFAULT(null, "id", Sort.Direction.ASC),
+    PRICE_ASC("price_asc", "price", Sort.Direction.ASC),
+    PRICE_DESC("price_desc", "price", Sort.Direction.DESC),
+    NEWEST("newest", "createdAt", Sort.Direction.DESC),
+    OLDEST("oldest", "createdAt", Sort.Direction.ASC),
+    // A ordenação por relevância é aplicada pela própria Specification (expressão FULLTEXT)
+    RELEVANCE("relevance", "relevance", Sort.Direction.DESC);
+
+    private final String param;
+    private final String attribute;
+    private final Sort.Direction direction;
+
+    ProductSort(String param, String attribute, Sort.Direction direction) {
+        this.param = param;
+        this.attribute = attribute;
+        this.direction = direction;
+    }
+
+    public String getAttribute() { return attribute; }
+    public Sort.Direction getDirection() { return direction; }
+
+    public boolean isById() {
+        return "id".equals(attribute);
+    }
+
+    public Sort toSort() {
+        if (isById()) {
+            return Sort.by(direction, "id");
+        }
+        if (this == RELEVANCE) {
+            return Sort.unsorted();
+        }
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Sem ordenação explícita, uma busca textual é ordenada por relevância.
+     */
+    public static ProductSort fromParam(String sortBy, String search) {
+        if (sortBy != null) {
+            for (ProductSort sort : values()) {
+                if (sortBy.equals(sort.param)) {
+                    return sort;
+                }
+            }
+        }
+        return (search == null || search.isBlank()) ? DEFAULT : RELEVANCE;
+    }
+}
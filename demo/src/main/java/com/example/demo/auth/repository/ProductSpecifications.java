@@ -0,0 +1,146 @@
+package com.example.demo.auth.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.ProductTag;
+import com.example.demo.shared.config.FullTextFunctionContributor;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Filtros dinâmicos da listagem de produtos (busca, tags e posição do cursor).
+ */
+public final class ProductSpecifications {
+
+    /**
+     * Casas decimais da relevância na ordenação e no cursor. O MATCH devolve um FLOAT que o cliente recebe
+     * truncado; arredondado no próprio banco, o valor guardado no cursor é o mesmo que o keyset compara.
+     */
+    public static final int RELEVANCE_SCALE = 6;
+
+    private ProductSpecifications() {}
+
+    /**
+     * Busca pelo índice FULLTEXT de (name, description) com correspondência por prefixo.
+     * Quando só há termos curtos demais para o índice, cai para um prefixo no nome,
+     * que ainda usa o índice B-tree de name (a collation do MySQL já ignora maiúsculas).
+     */
+    public static Specification<Product> matchesSearch(String search) {
+        return (root, query, cb) -> {
+            if (search == null || search.isBlank()) return null;
+
+            String booleanQuery = ProductSearchQuery.toBooleanQuery(search);
+            if (booleanQuery == null) {
+                return cb.like(root.get("name"), escapeLike(search.trim()) + "%", '\\');
+            }
+            return cb.greaterThan(relevance(root, cb, booleanQuery), 0.0);
+        };
+    }
+
+    /**
+     * Ordena pela relevância da busca (desempate por id), usado quando o cliente não pede outra ordenação.
+     */
+    public static Specification<Product> orderByRelevance(String search) {
+        return (root, query, cb) -> {
+            String booleanQuery = ProductSearchQuery.toBooleanQuery(search);
+            if (booleanQuery == null) {
+                query.orderBy(cb.desc(root.get("id")));
+            } else {
+                query.orderBy(cb.desc(relevanceKey(root, cb, booleanQuery)), cb.desc(root.get("id")));
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Produtos com qualquer uma das tags (OR) ou com todas elas (AND, um EXISTS por tag).
+     * EXISTS em vez de JOIN + DISTINCT para não duplicar linhas nem quebrar a ordenação;
+     * cada subconsulta resolve o nome pelo índice único de tag e segue por idx_product_tag_tag.
+     */
+    public static Specification<Product> hasTags(List<String> tags, boolean matchAll) {
+        return (root, query, cb) -> {
+            if (tags == null || tags.isEmpty()) return null;
+            if (!matchAll) return cb.exists(taggedWith(root, query, cb, tags));
+
+            return cb.and(tags.stream().distinct()
+                    .map(tag -> cb.exists(taggedWith(root, query, cb, List.of(tag))))
+                    .toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Restringe aos ids já resolvidos pelo índice de tags em memória.
+     */
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private static Subquery<Long> taggedWith(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                             List<String> tags) {
+        Subquery<Long> sub = query.subquery(Long.class);
+        Root<ProductTag> productTag = sub.from(ProductTag.class);
+        sub.select(productTag.get("id"))
+           .where(cb.equal(productTag.get("product"), root), productTag.join("tag").get("name").in(tags));
+        return sub;
+    }
+
+    /**
+     * Restringe aos produtos posicionados depois do cursor na ordenação informada.
+     * Segue a ordenação de NULLs do MySQL: primeiro no ASC e por último no DESC.
+     */
+    public static Specification<Product> after(ProductSort sort, Object value, Long lastId, String search) {
+        return (root, query, cb) -> {
+            if (lastId == null) return null;
+
+            boolean asc = sort.getDirection().isAscending();
+            Path<Long> id = root.get("id");
+            Predicate idAfter = asc ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+
+            if (sort.isById()) return idAfter;
+
+            if (sort == ProductSort.RELEVANCE) {
+                String booleanQuery = ProductSearchQuery.toBooleanQuery(search);
+                if (booleanQuery == null) return idAfter;
+                return keyset(cb, relevanceKey(root, cb, booleanQuery), value, asc, idAfter);
+            }
+
+            return keyset(cb, root.get(sort.getAttribute()), value, asc, idAfter);
+        };
+    }
+
+    private static Expression<Double> relevance(Root<Product> root, CriteriaBuilder cb, String booleanQuery) {
+        return cb.function(FullTextFunctionContributor.FULLTEXT_MATCH, Double.class,
+                root.get("name"), root.get("description"), cb.literal(booleanQuery));
+    }
+
+    private static Expression<Double> relevanceKey(Root<Product> root, CriteriaBuilder cb, String booleanQuery) {
+        return cb.function("round", Double.class, relevance(root, cb, booleanQuery), cb.literal(RELEVANCE_SCALE));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate keyset(CriteriaBuilder cb, Expression path, Object value, boolean asc, Predicate idAfter) {
+        if (value == null) {
+            Predicate sameNull = cb.and(cb.isNull(path), idAfter);
+            return asc ? cb.or(sameNull, cb.isNotNull(path)) : sameNull;
+        }
+
+        Comparable key = (Comparable) value;
+        Predicate beyond = asc ? cb.greaterThan(path, key) : cb.lessThan(path, key);
+        Predicate tie = cb.and(cb.equal(path, key), idAfter);
+        return asc ? cb.or(beyond, tie) : cb.or(beyond, tie, cb.isNull(path));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.auth.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.dto.ProductSummaryDto;
+
+/**
+ * Consultas de listagem que projetam direto em ProductSummaryDto (fragmento de ProductRepository).
+ */
+public interface ProductSummaryQueries {
+
+    /**
+     * Aplica os filtros da Specification, ordena e limita no banco, selecionando apenas as colunas do resumo.
+     */
+    List<ProductSummaryDto> findSummaries(Specification<Product> spec, Sort sort, int limit);
+
+    /**
+     * Ids de todos os produtos que atendem à Specification, sem ordenação (base das facetas de uma busca).
+     */
+    List<Long> findIds(Specification<Product> spec);
+}
@@ -0,0 +1,80 @@
+package com.example.demo.auth.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.dto.ProductSummaryDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class ProductSummaryQueriesImpl implements ProductSummaryQueries {
+
+    private final EntityManager entityManager;
+
+    ProductSummaryQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ProductSummaryDto> findSummaries(Specification<Product> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDto> query = cb.createQuery(ProductSummaryDto.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Store> store = root.join("store", JoinType.LEFT);
+
+        // Construtor em vez de entidades: nada entra no contexto de persistência
+        query.select(cb.construct(ProductSummaryDto.class,
+                root.get("id"), root.get("name"), root.get("price"), root.get("discount"),
+                root.get("averageRating"), root.get("createdAt"),
+                store.get("id"), store.get("name"), root.get("imageHash"), legacyImageUrl(cb, root)));
+
+        // A Specification pode definir a ordenação (relevância); só sobrescreve quando o Sort é explícito
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * imageUrl só para produtos sem hash e com URL externa: data URIs ainda não migrados ficam fora da listagem.
+     */
+    private static Expression<String> legacyImageUrl(CriteriaBuilder cb, Root<Product> root) {
+        Expression<String> imageUrl = root.get("imageUrl");
+        return cb.<String>selectCase()
+                .when(cb.and(cb.isNull(root.get("imageHash")), cb.notLike(imageUrl, "data:%")), imageUrl)
+                .otherwise(cb.nullLiteral(String.class));
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id"));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.demo.auth.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.example.demo.auth.domain.ProductTag;
 
 public interface ProductTagRepository extends JpaRepository<ProductTag, Long> {
+
+    @EntityGraph(attributePaths = "tag")
     List<ProductTag> findByProductId(Long productId);
+
+    Optional<ProductTag> findByProductIdAndTagId(Long productId, Long tagId);
 }
@@ -2,15 +2,74 @@ package com.example.demo.auth.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.auth.domain.Store;
-import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.StoreResponseDto;
+import com.example.demo.auth.dto.StoreSummaryDto;
 
 /**
  * Repositório para operações de banco de dados relacionadas a lojas.
  */
 public interface StoreRepository extends  JpaRepository<Store, Long> {
-    List<Store> findByOwnerId(User owner);
-    List<Store> findByOwner(User owner);
+
+    /**
+     * Lojas do usuário em um único SELECT: users pelo email (único) e stores pelo índice de owner_id,
+     * já como DTO (sem carregar o dono de cada loja). O cache por dono fica em OwnerStores, então de imageUrl
+     * só vem a URL externa legada, como no diretório: um data URI não migrado ocuparia megabytes por entrada.
+     */
+    @Query("""
+           SELECT new com.example.demo.auth.dto.StoreResponseDto(
+                      s.id, s.name, s.address, s.contact, s.imageHash,
+                      CASE WHEN s.imageHash IS NULL AND s.imageUrl NOT LIKE 'data:%' THEN s.imageUrl END,
+                      s.description,
+                      o.id, o.email, s.version)
+           FROM Store s
+           JOIN s.owner o
+           WHERE o.email = :email
+           ORDER BY s.id
+           """)
+    List<StoreResponseDto> findOwnedBy(@Param("email") String email);
+
+    @Query("SELECT s.id FROM Store s ORDER BY s.id")
+    List<Long> findAllIds();
+
+    /**
+     * Primeira página do diretório público, em ordem de nome (desempate por id), já com as estatísticas
+     * de store_stats no mesmo SELECT. O prefixo (LIKE 'abc%') percorre só a faixa do índice (name, id);
+     * sem busca, o padrão é '%'. Lojas sem nome ficam fora do diretório.
+     */
+    @Query("""
+           SELECT new com.example.demo.auth.dto.StoreSummaryDto(
+                      s.id, s.name, s.address, s.contact, s.description, s.imageHash,
+                      CASE WHEN s.imageHash IS NULL AND s.imageUrl NOT LIKE 'data:%' THEN s.imageUrl END,
+                      st.productCount, st.ratingSum, st.ratingCount)
+           FROM Store s
+           LEFT JOIN StoreStats st ON st.storeId = s.id
+           WHERE s.name LIKE :prefix ESCAPE '\\'
+           ORDER BY s.name, s.id
+           """)
+    List<StoreSummaryDto> findDirectory(@Param("prefix") String prefix, Limit limit);
+
+    /**
+     * Próximas páginas do diretório, a partir do último (name, id) entregue.
+     */
+    @Query("""
+           SELECT new com.example.demo.auth.dto.StoreSummaryDto(
+                      s.id, s.name, s.address, s.contact, s.description, s.imageHash,
+                      CASE WHEN s.imageHash IS NULL AND s.imageUrl NOT LIKE 'data:%' THEN s.imageUrl END,
+                      st.productCount, st.ratingSum, st.ratingCount)
+           FROM Store s
+           LEFT JOIN StoreStats st ON st.storeId = s.id
+           WHERE s.name LIKE :prefix ESCAPE '\\'
+             AND (s.name > :name OR (s.name = :name AND s.id > :lastId))
+           ORDER BY s.name, s.id
+           """)
+    List<StoreSummaryDto> findDirectoryAfter(@Param("prefix") String prefix,
+                                             @Param("name") String name,
+                                             @Param("lastId") Long lastId,
+                                             Limit limit);
 }
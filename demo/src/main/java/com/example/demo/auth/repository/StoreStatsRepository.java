@@ -0,0 +1,84 @@
+package com.example.demo.auth.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.demo.auth.domain.StoreStats;
+
+import jakarta.persistence.LockModeType;
+
+public interface StoreStatsRepository extends JpaRepository<StoreStats, Long> {
+
+    /**
+     * Aplica a variação de produtos, preço e estoque em um único UPDATE atômico, sem ler a linha.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE StoreStats s SET
+               s.productCount = s.productCount + :count,
+               s.priceSum = s.priceSum + :price,
+               s.stockSum = s.stockSum + :stock
+           WHERE s.storeId = :storeId
+           """)
+    int addProducts(@Param("storeId") Long storeId,
+                    @Param("count") long count,
+                    @Param("price") double price,
+                    @Param("stock") long stock);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE StoreStats s SET
+               s.ratingSum = s.ratingSum + :sumDelta,
+               s.ratingCount = s.ratingCount + :countDelta
+           WHERE s.storeId = :storeId
+           """)
+    int addRatings(@Param("storeId") Long storeId,
+                   @Param("sumDelta") long sumDelta,
+                   @Param("countDelta") long countDelta);
+
+    /**
+     * Igual a addRatings, para quem só conhece o produto (votos e flush da ingestão de avaliações).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+           UPDATE StoreStats s SET
+               s.ratingSum = s.ratingSum + :sumDelta,
+               s.ratingCount = s.ratingCount + :countDelta
+           WHERE s.storeId = (SELECT p.store.id FROM Product p WHERE p.id = :productId)
+           """)
+    int addProductRatings(@Param("productId") Long productId,
+                          @Param("sumDelta") long sumDelta,
+                          @Param("countDelta") long countDelta);
+
+    // A reconciliação segura a linha enquanto recalcula, então os incrementos concorrentes esperam e entram depois
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StoreStats s WHERE s.storeId = :storeId")
+    Optional<StoreStats> lockById(@Param("storeId") Long storeId);
+
+    /**
+     * Recalcula as somas a partir de product (usado só pela reconciliação).
+     */
+    @Query("""
+           SELECT COUNT(p) AS productCount,
+                  COALESCE(SUM(p.price), 0.0) AS priceSum,
+                  COALESCE(SUM(p.quantity), 0) AS stockSum,
+                  COALESCE(SUM(p.ratingSum), 0) AS ratingSum,
+                  COALESCE(SUM(p.ratingCount), 0) AS ratingCount
+           FROM Product p
+           WHERE p.store.id = :storeId
+           """)
+    StoreAggregate aggregate(@Param("storeId") Long storeId);
+
+    interface StoreAggregate {
+        Long getProductCount();
+        Double getPriceSum();
+        Long getStockSum();
+        Long getRatingSum();
+        Long getRatingCount();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.auth.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.demo.auth.domain.Tag;
+import com.example.demo.auth.dto.TagResponseDto;
+
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    Optional<Tag> findByName(String name);
+
+    // Uma linha por tag do dicionário em uso, com a quantidade de produtos (sem repetir o nome por produto)
+    @Query("""
+           SELECT new com.example.demo.auth.dto.TagResponseDto(t.id, t.name, COUNT(pt.id))
+           FROM ProductTag pt JOIN pt.tag t
+           GROUP BY t.id, t.name
+           ORDER BY t.name
+           """)
+    List<TagResponseDto> findAllInUse();
+}
@@ -0,0 +1,72 @@
+package com.example.demo.auth.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nomes dos caches do catálogo e invalidação a partir das escritas.
+ * products (listagem paginada/filtrada) não tem como ser invalidado por chave, então é limpo inteiro;
+ * storeProducts é invalidado só na loja afetada; publicStores e tags têm uma única chave cada;
+ * ownerStores ("minhas lojas") é invalidado só no email do dono.
+ * Cada invalidação também avança as versões de CatalogVersions (ETag das mesmas leituras).
+ * @param productChanged Produto criado, alterado ou excluído na loja informada (também muda as estatísticas da loja na lista pública).
+ * @param storeChanged Dados da loja mudaram (nome aparece nas listagens de produto).
+ * @param storeListChanged Loja criada ou imagem alterada (só a lista pública e a própria loja mudam).
+ * @param ownerStoresChanged Loja do dono informado criada, alterada ou excluída.
+ * @param tagsChanged Tag criada ou removida.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String PRODUCTS = "products";
+    public static final String STORE_PRODUCTS = "storeProducts";
+    public static final String PUBLIC_STORES = "publicStores";
+    public static final String TAGS = "tags";
+    public static final String OWNER_STORES = "ownerStores";
+
+    private final CacheManager cacheManager;
+    private final CatalogVersions versions;
+
+    public CatalogCache(CacheManager cacheManager, CatalogVersions versions) {
+        this.cacheManager = cacheManager;
+        this.versions = versions;
+    }
+
+    public void productChanged(Long storeId) {
+        clear(PRODUCTS);
+        evict(STORE_PRODUCTS, storeId);
+        clear(PUBLIC_STORES);
+        versions.storeChanged(storeId);
+    }
+
+    public void storeChanged(Long storeId) {
+        productChanged(storeId);
+    }
+
+    public void storeListChanged(Long storeId) {
+        clear(PUBLIC_STORES);
+        versions.storeChanged(storeId);
+    }
+
+    public void ownerStoresChanged(String ownerEmail) {
+        evict(OWNER_STORES, ownerEmail);
+    }
+
+    public void tagsChanged() {
+        clear(TAGS);
+        // o filtro por tag da listagem depende delas
+        clear(PRODUCTS);
+        versions.catalogChanged();
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) cache.clear();
+    }
+
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null && key != null) cache.evict(key);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.auth.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de versão do catálogo, usados como ETag forte nas leituras públicas.
+ * Há uma versão global (qualquer escrita no catálogo) e uma por loja (produtos ou dados da loja).
+ * Assim como em TokenVersionRegistry, tudo começa na versão de boot, então ETags de uma execução
+ * anterior (ou de outra instância) nunca casam. O incremento só acontece depois do commit, para que
+ * uma leitura concorrente não associe a versão nova a dados ainda não confirmados.
+ * A época do TTL do cache entra no ETag: a média de avaliação (write-behind) não incrementa a versão,
+ * então a revalidação volta a enviar o corpo a cada catalog.cache.ttl-seconds, como o próprio cache.
+ * @param catalog Versão global do catálogo.
+ * @param store Versão de uma loja e dos seus produtos.
+ * @param etag Monta o ETag de uma versão.
+ * @param catalogChanged Incrementa a versão global (após o commit, se houver transação).
+ * @param storeChanged Incrementa a versão da loja e a global (após o commit, se houver transação).
+ */
+@Component
+public class CatalogVersions {
+
+    private final long bootVersion;
+    private final long epochMillis;
+    private final AtomicLong sequence;
+    private final AtomicLong catalog;
+    // Só guarda lojas alteradas desde o boot; as demais estão na versão de boot
+    private final Map<Long, Long> stores = new ConcurrentHashMap<>();
+
+    public CatalogVersions(@Value("${catalog.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.bootVersion = System.currentTimeMillis();
+        this.epochMillis = Math.max(1, ttlSeconds) * 1000;
+        this.sequence = new AtomicLong(bootVersion);
+        this.catalog = new AtomicLong(bootVersion);
+    }
+
+    public long catalog() {
+        return catalog.get();
+    }
+
+    public long store(Long storeId) {
+        return stores.getOrDefault(storeId, bootVersion);
+    }
+
+    public String etag(long version) {
+        return "\"" + version + "-" + System.currentTimeMillis() / epochMillis + "\"";
+    }
+
+    public void catalogChanged() {
+        AfterCommit.run(() -> catalog.set(sequence.incrementAndGet()));
+    }
+
+    public void storeChanged(Long storeId) {
+        AfterCommit.run(() -> {
+            long next = sequence.incrementAndGet();
+            if (storeId != null) stores.put(storeId, next);
+            catalog.set(next);
+        });
+    }
+}
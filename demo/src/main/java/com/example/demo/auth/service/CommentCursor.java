@@ -0,0 +1,50 @@
+package com.example.demo.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.demo.shared.exception.BadRequestException;
+
+/**
+ * Cursor (keyset) do feed de comentários: createdAt e id do último comentário entregue,
+ * serializados em um token Base64 opaco para o cliente.
+ */
+public final class CommentCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long lastId;
+
+    private CommentCursor(LocalDateTime createdAt, Long lastId) {
+        this.createdAt = createdAt;
+        this.lastId = lastId;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public Long getLastId() { return lastId; }
+
+    public static CommentCursor of(LocalDateTime createdAt, Long lastId) {
+        return new CommentCursor(createdAt, lastId);
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("formato inesperado");
+            }
+            return new CommentCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.auth.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.auth.dto.FacetCountDto;
+import com.example.demo.auth.dto.ProductFacetsDto;
+
+/**
+ * Bitmaps pré-calculados por faixa de preço e por estrelas, para contar as facetas de qualquer filtro
+ * com interseções (andCardinality) em memória, sem varrer product. As tags vêm do TagIndex.
+ * Criação, edição e exclusão de produto atualizam o índice após o commit; a média de avaliação é gravada
+ * em write-behind, então as estrelas são reconciliadas pela recarga completa a cada catalog.facets.refresh-ms.
+ * Como no TagIndex, cada escrita publica um Snapshot novo e as leituras não usam lock.
+ * @param all Todos os produtos (filtro vazio).
+ * @param count Facetas dos produtos do filtro informado.
+ * @param rebuild Recarrega o índice a partir de product.
+ */
+@Component
+public class FacetIndex {
+
+    // Limites das faixas de preço: [0, 50), [50, 100), ..., [1000, ∞)
+    static final double[] PRICE_BOUNDS = {50, 100, 200, 500, 1000};
+    static final int MAX_STARS = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(FacetIndex.class);
+
+    private record Snapshot(RoaringBitmap all, RoaringBitmap[] prices, RoaringBitmap[] stars) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot;
+
+    public FacetIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public RoaringBitmap all() {
+        return snapshot.all();
+    }
+
+    public ProductFacetsDto count(RoaringBitmap filter, Map<String, RoaringBitmap> tags) {
+        Snapshot current = snapshot;
+
+        List<FacetCountDto> tagCounts = new ArrayList<>();
+        tags.forEach((tag, products) -> {
+            int count = RoaringBitmap.andCardinality(filter, products);
+            if (count > 0) tagCounts.add(new FacetCountDto(tag, count));
+        });
+        tagCounts.sort(Comparator.comparingInt(FacetCountDto::getCount).reversed()
+                .thenComparing(FacetCountDto::getValue));
+
+        List<FacetCountDto> prices = new ArrayList<>(current.prices().length);
+        for (int i = 0; i < current.prices().length; i++) {
+            Double min = i == 0 ? 0.0 : PRICE_BOUNDS[i - 1];
+            Double max = i < PRICE_BOUNDS.length ? PRICE_BOUNDS[i] : null;
+            String value = max == null ? min.intValue() + "+" : min.intValue() + "-" + max.intValue();
+            prices.add(new FacetCountDto(value, min, max, RoaringBitmap.andCardinality(filter, current.prices()[i])));
+        }
+
+        List<FacetCountDto> stars = new ArrayList<>(current.stars().length);
+        for (int i = 0; i < current.stars().length; i++) {
+            stars.add(new FacetCountDto(String.valueOf(i), RoaringBitmap.andCardinality(filter, current.stars()[i])));
+        }
+
+        return new ProductFacetsDto(filter.getCardinality(), tagCounts, prices, stars);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog.facets.refresh-ms:60000}",
+               fixedDelayString = "${catalog.facets.refresh-ms:60000}")
+    public synchronized void rebuild() {
+        Snapshot loaded = new Snapshot(new RoaringBitmap(), bitmaps(PRICE_BOUNDS.length + 1), bitmaps(MAX_STARS + 1));
+        jdbcTemplate.query("SELECT id, price, average_rating FROM product", rs -> {
+            int id = Math.toIntExact(rs.getLong(1));
+            loaded.all().add(id);
+            loaded.prices()[priceBucket(rs.getObject(2, Double.class))].add(id);
+            loaded.stars()[stars(rs.getObject(3, Double.class))].add(id);
+        });
+        snapshot = loaded;
+        log.debug("Índice de facetas carregado: {} produtos", loaded.all().getCardinality());
+    }
+
+    void productSaved(Long productId, Double price, Double averageRating) {
+        AfterCommit.run(() -> update(productId, priceBucket(price), stars(averageRating)));
+    }
+
+    // Importação em massa: produtos novos entram sem avaliação (0 estrelas), com uma cópia por bitmap afetado
+    void productsCreated(Map<Long, Double> pricesById) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                Snapshot current = snapshot;
+                if (current == null) return;
+
+                RoaringBitmap added = new RoaringBitmap();
+                RoaringBitmap[] byPrice = bitmaps(current.prices().length);
+                pricesById.forEach((id, price) -> {
+                    added.add(Math.toIntExact(id));
+                    byPrice[priceBucket(price)].add(Math.toIntExact(id));
+                });
+
+                RoaringBitmap[] prices = current.prices().clone();
+                for (int i = 0; i < prices.length; i++) {
+                    if (!byPrice[i].isEmpty()) prices[i] = RoaringBitmap.or(prices[i], byPrice[i]);
+                }
+                RoaringBitmap[] stars = current.stars().clone();
+                stars[0] = RoaringBitmap.or(stars[0], added);
+
+                snapshot = new Snapshot(RoaringBitmap.or(current.all(), added), prices, stars);
+            }
+        });
+    }
+
+    void productRemoved(Long productId) {
+        AfterCommit.run(() -> update(productId, -1, -1));
+    }
+
+    // Copy-on-write: só os bitmaps que mudam são clonados; bucket -1 remove o produto
+    private synchronized void update(Long productId, int priceBucket, int stars) {
+        Snapshot current = snapshot;
+        if (current == null) return;
+
+        int id = Math.toIntExact(productId);
+        snapshot = new Snapshot(
+                with(current.all(), id, priceBucket >= 0),
+                move(current.prices(), id, priceBucket),
+                move(current.stars(), id, stars));
+    }
+
+    private static RoaringBitmap[] move(RoaringBitmap[] buckets, int id, int target) {
+        RoaringBitmap[] next = buckets.clone();
+        for (int i = 0; i < next.length; i++) {
+            next[i] = with(next[i], id, i == target);
+        }
+        return next;
+    }
+
+    private static RoaringBitmap with(RoaringBitmap bitmap, int id, boolean present) {
+        if (bitmap.contains(id) == present) return bitmap;
+        RoaringBitmap copy = bitmap.clone();
+        if (present) copy.add(id); else copy.remove(id);
+        return copy;
+    }
+
+    static int priceBucket(Double price) {
+        if (price == null) return 0;
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDS.length && price >= PRICE_BOUNDS[bucket]) bucket++;
+        return bucket;
+    }
+
+    static int stars(Double averageRating) {
+        if (averageRating == null) return 0;
+        return (int) Math.max(0, Math.min(MAX_STARS, Math.floor(averageRating)));
+    }
+
+    private static RoaringBitmap[] bitmaps(int size) {
+        RoaringBitmap[] bitmaps = new RoaringBitmap[size];
+        for (int i = 0; i < size; i++) bitmaps[i] = new RoaringBitmap();
+        return bitmaps;
+    }
+}
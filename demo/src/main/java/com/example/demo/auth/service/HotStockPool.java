@@ -0,0 +1,133 @@
+package com.example.demo.auth.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.repository.ProductRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Frente em memória para o estoque dos produtos mais disputados (inventory.hot.product-ids).
+ * Em vez de um UPDATE por reserva na mesma linha de product (e o lock dessa linha até o commit de cada
+ * checkout), o pool retira do banco lotes de inventory.hot.lease-size unidades em uma transação curta e própria,
+ * e as reservas seguintes descontam de contadores em faixas (um AtomicIntegerArray por produto), sem lock.
+ * As unidades em memória voltam ao banco a cada inventory.hot.return-ms e no desligamento; em uma queda,
+ * só o lote corrente fica fora do estoque (nunca há venda acima do estoque). Considera uma única instância.
+ * @param take Retira unidades do pool, buscando um lote novo no banco quando as faixas não bastam.
+ * @param giveBack Devolve ao pool unidades de uma reserva que não chegou ao commit.
+ */
+@Component
+public class HotStockPool {
+
+    private static final Logger log = LoggerFactory.getLogger(HotStockPool.class);
+    private static final int STRIPES = Math.max(2, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final Set<Long> hotProducts;
+    private final int leaseSize;
+    private final Map<Long, AtomicIntegerArray> pools = new ConcurrentHashMap<>();
+
+    public HotStockPool(ProductRepository productRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${inventory.hot.product-ids:}") List<Long> hotProducts,
+                        @Value("${inventory.hot.lease-size:50}") int leaseSize) {
+        this.productRepository = productRepository;
+        this.hotProducts = Set.copyOf(hotProducts);
+        this.leaseSize = leaseSize;
+        // O lote é confirmado à parte: o lock da linha de product dura só este UPDATE, não o checkout inteiro
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isHot(Long productId) {
+        return hotProducts.contains(productId);
+    }
+
+    public boolean take(Long productId, int quantity) {
+        AtomicIntegerArray stripes = pools.computeIfAbsent(productId, id -> new AtomicIntegerArray(STRIPES));
+        if (takeFromStripe(stripes, quantity)) return true;
+
+        synchronized (stripes) {
+            // Outra thread pode ter acabado de buscar um lote; o saldo também pode estar espalhado entre as faixas
+            int pooled = drain(stripes);
+            if (pooled >= quantity) {
+                stripes.addAndGet(0, pooled - quantity);
+                return true;
+            }
+
+            // Um lote inteiro se houver; senão, só o que falta para esta reserva
+            int missing = quantity - pooled;
+            int batch = Math.max(leaseSize, missing);
+            int leased = lease(productId, batch) ? batch : lease(productId, missing) ? missing : 0;
+            if (pooled + leased < quantity) {
+                stripes.addAndGet(0, pooled);
+                return false;
+            }
+            stripes.addAndGet(0, pooled + leased - quantity);
+            return true;
+        }
+    }
+
+    public void giveBack(Long productId, int quantity) {
+        AtomicIntegerArray stripes = pools.computeIfAbsent(productId, id -> new AtomicIntegerArray(STRIPES));
+        stripes.addAndGet(ThreadLocalRandom.current().nextInt(STRIPES), quantity);
+    }
+
+    // Devolve ao banco o que está parado em memória, para que product.quantity não fique defasado por muito tempo
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${inventory.hot.return-ms:5000}")
+    public void returnUnused() {
+        pools.forEach((productId, stripes) -> {
+            int pooled;
+            synchronized (stripes) {
+                pooled = drain(stripes);
+            }
+            if (pooled == 0) return;
+            try {
+                leaseTransaction.executeWithoutResult(status -> productRepository.adjustStock(productId, pooled));
+            } catch (RuntimeException e) {
+                giveBack(productId, pooled);
+                log.warn("Falha ao devolver {} unidades do produto {} ao estoque", pooled, productId, e);
+            }
+        });
+    }
+
+    private boolean lease(Long productId, int amount) {
+        Integer taken = leaseTransaction.execute(status -> productRepository.takeStock(productId, amount));
+        return taken != null && taken > 0;
+    }
+
+    private static boolean takeFromStripe(AtomicIntegerArray stripes, int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            int stripe = (start + i) % STRIPES;
+            int available = stripes.get(stripe);
+            while (available >= quantity) {
+                if (stripes.compareAndSet(stripe, available, available - quantity)) return true;
+                available = stripes.get(stripe);
+            }
+        }
+        return false;
+    }
+
+    private static int drain(AtomicIntegerArray stripes) {
+        int total = 0;
+        for (int i = 0; i < STRIPES; i++) total += stripes.getAndSet(i, 0);
+        return total;
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.demo.auth.service;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.ImageMigrationCheckpoint;
+import com.example.demo.auth.repository.ImageMigrationCheckpointRepository;
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.storage.ImageStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Migração em segundo plano das imagens base64 guardadas em product.image_url e stores.image_url para o ImageStore.
+ * Ligada por padrão, porque as listagens ignoram as imagens base64 que ainda não passaram pelo ImageStore;
+ * images.migration.enabled=false a desliga. A cada execução agendada processa um lote por tabela
+ * (images.migration.batch-size linhas, por id crescente) e espera images.migration.pause-ms antes do próximo,
+ * limitando a carga no banco em produção. O primeiro lote só roda após images.migration.initial-delay-ms.
+ * A leitura usa cursor forward-only em modo streaming (uma linha por vez na memória) e cada imagem é
+ * decodificada direto do Reader da coluna para o disco. As linhas do lote são atualizadas por PK em uma
+ * transação curta, só se o valor ainda for o lido (image_hash nulo e mesmo tamanho), sem travar a tabela.
+ * O progresso fica em image_migration_checkpoint, então a migração retoma de onde parou após um reinício;
+ * com as duas tabelas concluídas, as execuções seguintes não consultam mais o banco.
+ * Métricas: images.migration.rows (tags table e outcome), images.migration.batch.latency e
+ * images.migration.last.id (tag table).
+ */
+@Component
+@ConditionalOnProperty(name = "images.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class ImageMigrationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageMigrationJob.class);
+
+    static final List<String> TABLES = List.of("product", "stores");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageMigrationCheckpointRepository checkpointRepository;
+    private final ImageStore imageStore;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Timer batchTimer;
+    private final Map<String, Long> lastIds = new ConcurrentHashMap<>();
+    private volatile boolean finished;
+
+    public ImageMigrationJob(DataSource dataSource,
+                             JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ImageMigrationCheckpointRepository checkpointRepository,
+                             ImageStore imageStore,
+                             MeterRegistry meterRegistry,
+                             @Value("${images.migration.batch-size:50}") int batchSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.imageStore = imageStore;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.batchTimer = Timer.builder("images.migration.batch.latency")
+                .description("Duração de cada lote da migração de imagens")
+                .register(meterRegistry);
+
+        for (String table : TABLES) {
+            lastIds.put(table, 0L);
+            Gauge.builder("images.migration.last.id", lastIds, ids -> ids.get(table))
+                    .tag("table", table)
+                    .description("Maior id já processado pela migração de imagens")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${images.migration.initial-delay-ms:30000}",
+               fixedDelayString = "${images.migration.pause-ms:500}")
+    public void migrateNextBatch() {
+        if (finished) return;
+
+        boolean pending = false;
+        for (String table : TABLES) {
+            ImageMigrationCheckpoint checkpoint = checkpointRepository.findById(table)
+                    .orElseGet(() -> ImageMigrationCheckpoint.builder().tableName(table).build());
+            if (checkpoint.isCompleted()) continue;
+
+            pending = true;
+            batchTimer.record(() -> migrateBatch(checkpoint));
+        }
+        finished = !pending;
+    }
+
+    private void migrateBatch(ImageMigrationCheckpoint checkpoint) {
+        String table = checkpoint.getTableName();
+        List<Long> ids = new ArrayList<>();
+        List<MigratedImage> migrated = new ArrayList<>();
+        int failed = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id, image_url FROM " + table + " WHERE id > ? AND image_hash IS NULL " +
+                     "AND image_url LIKE 'data:%' ORDER BY id LIMIT ?",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // No MySQL, Integer.MIN_VALUE liga o streaming: o driver entrega uma linha por vez
+            boolean mySql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            statement.setFetchSize(mySql ? Integer.MIN_VALUE : batchSize);
+            statement.setLong(1, checkpoint.getLastId());
+            statement.setInt(2, batchSize);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    long id = rs.getLong("id");
+                    ids.add(id);
+                    try (CountingReader reader = new CountingReader(rs.getCharacterStream("image_url"))) {
+                        String hash = imageStore.storeDataUri(reader);
+                        migrated.add(new MigratedImage(id, hash, reader.drain()));
+                    } catch (BadRequestException | IOException | UncheckedIOException e) {
+                        // a linha continua com o valor antigo; o checkpoint avança para não repetir a mesma falha
+                        failed++;
+                        log.warn("Imagem de {} id={} não migrada: {}", table, id, e.getMessage());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Falha ao ler lote da migração de imagens em {}", table, e);
+            return;
+        }
+
+        int updated = apply(table, migrated);
+        int skipped = migrated.size() - updated;
+        int failures = failed;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (ids.isEmpty()) {
+                checkpoint.setCompleted(true);
+                log.info("Migração de imagens em {} concluída: {} migradas, {} com falha",
+                        table, checkpoint.getMigrated(), checkpoint.getFailed());
+            } else {
+                checkpoint.setLastId(ids.get(ids.size() - 1));
+                checkpoint.setMigrated(checkpoint.getMigrated() + updated);
+                checkpoint.setFailed(checkpoint.getFailed() + failures);
+            }
+            checkpointRepository.save(checkpoint);
+        });
+
+        lastIds.put(table, checkpoint.getLastId());
+        count(table, "migrated", updated);
+        count(table, "skipped", skipped);
+        count(table, "failed", failures);
+    }
+
+    /**
+     * Grava o hash e limpa image_url em uma transação curta por lote (UPDATE por PK).
+     * A condição de tamanho descarta linhas cuja imagem mudou depois da leitura.
+     */
+    private int apply(String table, List<MigratedImage> images) {
+        if (images.isEmpty()) return 0;
+
+        int[] results = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                "UPDATE " + table + " SET image_hash = ?, image_url = NULL " +
+                "WHERE id = ? AND image_hash IS NULL AND CHAR_LENGTH(image_url) = ?",
+                images, images.size(), (ps, image) -> {
+                    ps.setString(1, image.hash());
+                    ps.setLong(2, image.id());
+                    ps.setLong(3, image.length());
+                })[0]);
+
+        int updated = 0;
+        for (int result : results) {
+            // SUCCESS_NO_INFO (-2): o driver não informa a contagem, mas o comando foi aplicado
+            if (result > 0 || result == Statement.SUCCESS_NO_INFO) updated++;
+        }
+        return updated;
+    }
+
+    private void count(String table, String outcome, long amount) {
+        if (amount <= 0) return;
+        Counter.builder("images.migration.rows")
+                .tag("table", table)
+                .tag("outcome", outcome)
+                .description("Linhas processadas pela migração de imagens")
+                .register(meterRegistry)
+                .increment(amount);
+    }
+
+    private record MigratedImage(long id, String hash, long length) {}
+
+    /**
+     * Conta os caracteres lidos da coluna, usados na condição do UPDATE sem guardar o texto.
+     */
+    private static final class CountingReader extends FilterReader {
+
+        private long count;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c != -1) count++;
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        // O decoder base64 para no padding; consome o que sobrar para o total bater com CHAR_LENGTH
+        long drain() throws IOException {
+            char[] buffer = new char[8192];
+            while (read(buffer, 0, buffer.length) != -1) {
+                // só avança a contagem
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.demo.auth.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.auth.domain.InventoryReservation;
+import com.example.demo.auth.domain.ReservationStatus;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ReservationResponseDto;
+import com.example.demo.auth.repository.InventoryReservationRepository;
+import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.exception.ConflictException;
+import com.example.demo.shared.exception.NotFoundException;
+
+/**
+ * Reservas de estoque com prazo (inventory.reservations.ttl-seconds).
+ * reserve desconta product.quantity com um UPDATE condicional (quantity >= pedido), sem ler e regravar o produto;
+ * produtos em inventory.hot.product-ids descontam do HotStockPool, que busca o estoque no banco em lotes.
+ * commit confirma a reserva; release e a expiração (a cada inventory.reservations.sweep-ms) devolvem as unidades.
+ * Cada transição é um UPDATE condicional ao estado PENDING, então confirmar e expirar ao mesmo tempo
+ * não devolve estoque de uma reserva confirmada.
+ * @param reserve Reserva unidades de um produto para o usuário (409 se não houver estoque).
+ * @param commit Confirma uma reserva pendente e ainda no prazo (409 caso contrário).
+ * @param release Cancela uma reserva pendente e devolve as unidades ao estoque.
+ * @param expireReservations Devolve o estoque das reservas vencidas, em lotes.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+    private static final int SWEEP_BATCH = 500;
+
+    private final ProductRepository productRepository;
+    private final InventoryReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final HotStockPool hotStockPool;
+    private final Duration ttl;
+
+    public InventoryService(ProductRepository productRepository,
+                            InventoryReservationRepository reservationRepository,
+                            UserRepository userRepository,
+                            HotStockPool hotStockPool,
+                            @Value("${inventory.reservations.ttl-seconds:900}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.hotStockPool = hotStockPool;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Transactional
+    public ReservationResponseDto reserve(Long productId, Integer quantity, String email) {
+        if (quantity == null || quantity < 1) {
+            throw new BadRequestException("A quantidade reservada deve ser maior que zero");
+        }
+        User user = userRepository.findByEmail(email).orElseThrow();
+        if (!productRepository.existsById(productId)) {
+            throw new NotFoundException("Produto não encontrado");
+        }
+
+        if (hotStockPool.isHot(productId)) {
+            if (!hotStockPool.take(productId, quantity)) {
+                throw new ConflictException("Estoque insuficiente para a reserva");
+            }
+            // O lote do pool já foi confirmado à parte; se esta transação falhar, as unidades voltam ao pool
+            onRollback(() -> hotStockPool.giveBack(productId, quantity));
+        } else if (productRepository.takeStock(productId, quantity) == 0) {
+            throw new ConflictException("Estoque insuficiente para a reserva");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        InventoryReservation reservation = reservationRepository.save(InventoryReservation.builder()
+                .productId(productId)
+                .userId(user.getId())
+                .quantity(quantity)
+                .status(ReservationStatus.PENDING)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build());
+        return ReservationResponseDto.fromEntity(reservation);
+    }
+
+    @Transactional
+    public ReservationResponseDto commit(Long reservationId, String email) {
+        InventoryReservation reservation = findOwned(reservationId, email);
+
+        if (reservationRepository.commitPending(reservationId, LocalDateTime.now()) == 0) {
+            throw new ConflictException("A reserva já foi confirmada, liberada ou expirou");
+        }
+        reservation.setStatus(ReservationStatus.COMMITTED);
+        return ReservationResponseDto.fromEntity(reservation);
+    }
+
+    @Transactional
+    public ReservationResponseDto release(Long reservationId, String email) {
+        InventoryReservation reservation = findOwned(reservationId, email);
+
+        if (reservationRepository.transition(reservationId, ReservationStatus.PENDING, ReservationStatus.RELEASED) == 0) {
+            throw new ConflictException("A reserva já foi confirmada, liberada ou expirou");
+        }
+        productRepository.adjustStock(reservation.getProductId(), reservation.getQuantity());
+        reservation.setStatus(ReservationStatus.RELEASED);
+        return ReservationResponseDto.fromEntity(reservation);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-ms:30000}")
+    public void expireReservations() {
+        List<InventoryReservation> expired = reservationRepository.findExpired(LocalDateTime.now(),
+                PageRequest.of(0, SWEEP_BATCH));
+        int released = 0;
+        for (InventoryReservation reservation : expired) {
+            if (reservationRepository.transition(reservation.getId(), ReservationStatus.PENDING,
+                    ReservationStatus.EXPIRED) == 1) {
+                productRepository.adjustStock(reservation.getProductId(), reservation.getQuantity());
+                released++;
+            }
+        }
+        if (released > 0) log.info("{} reservas expiradas devolvidas ao estoque", released);
+    }
+
+    private InventoryReservation findOwned(Long reservationId, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        InventoryReservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new NotFoundException("Reserva não encontrada"));
+
+        if (!"ADMIN".equals(String.valueOf(user.getRole())) &&
+            !reservation.getUserId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para alterar esta reserva.");
+        }
+        return reservation;
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) action.run();
+            }
+        });
+    }
+}
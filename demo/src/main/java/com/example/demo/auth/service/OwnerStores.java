@@ -0,0 +1,38 @@
+package com.example.demo.auth.service;
+
+import java.util.List;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.auth.dto.StoreResponseDto;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+
+/**
+ * Lojas de cada dono ("minhas lojas"), no cache ownerStores por email.
+ * Fica fora do StoreService para que a chamada passe pelo proxy do cache; as escritas da loja invalidam
+ * a entrada do dono (CatalogCache.ownerStoresChanged).
+ * Um email sem cadastro responde IllegalArgumentException, e a existência do usuário só é consultada
+ * quando a lista vem vazia; exceções não vão para o cache.
+ */
+@Service
+public class OwnerStores {
+
+    private final StoreRepository storeRepository;
+    private final UserRepository userRepository;
+
+    public OwnerStores(StoreRepository storeRepository, UserRepository userRepository) {
+        this.storeRepository = storeRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Cacheable(cacheNames = CatalogCache.OWNER_STORES, key = "#email")
+    public List<StoreResponseDto> load(String email) {
+        List<StoreResponseDto> stores = storeRepository.findOwnedBy(email);
+        if (stores.isEmpty() && !userRepository.existsByEmail(email)) {
+            throw new IllegalArgumentException("Usuário não encontrado");
+        }
+        return stores;
+    }
+}
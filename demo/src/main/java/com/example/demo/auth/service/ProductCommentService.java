@@ -2,16 +2,22 @@ package com.example.demo.auth.service;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.auth.domain.ProductComment;
+import com.example.demo.auth.dto.CursorPageResponseDto;
+import com.example.demo.auth.dto.ProductCommentResponseDto;
 import com.example.demo.auth.repository.ProductCommentRepository;
 
 @Service
 @Transactional
 public class ProductCommentService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductCommentRepository repository;
 
     public ProductCommentService(ProductCommentRepository repository) {
@@ -22,8 +28,26 @@ public class ProductCommentService {
         return repository.save(comment);
     }
 
-    public List<ProductComment> getCommentsByProduct(Long productId) {
-        return repository.findByProductId(productId);
+    @Transactional(readOnly = true)
+    public CursorPageResponseDto<ProductCommentResponseDto> getCommentsByProduct(Long productId, String cursor, Integer size) {
+        int pageSize = (size == null) ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<ProductCommentResponseDto> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = repository.findFeed(productId, limit);
+        } else {
+            CommentCursor position = CommentCursor.decode(cursor);
+            comments = repository.findFeedAfter(productId, position.getCreatedAt(), position.getLastId(), limit);
+        }
+
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            ProductCommentResponseDto last = comments.get(pageSize - 1);
+            nextCursor = CommentCursor.of(last.getCreatedAtValue(), last.getId()).encode();
+        }
+        return new CursorPageResponseDto<>(comments, nextCursor);
     }
 
     public void deleteComment(Long commentId) {
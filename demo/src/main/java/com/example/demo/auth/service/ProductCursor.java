@@ -0,0 +1,78 @@
+package com.example.demo.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import com.example.demo.auth.dto.ProductSummaryDto;
+import com.example.demo.auth.repository.ProductSort;
+import com.example.demo.shared.exception.BadRequestException;
+
+/**
+ * Cursor (keyset) da listagem de produtos.
+ * Guarda a ordenação, o valor da coluna ordenada e o id do último produto entregue,
+ * serializados em um token Base64 opaco para o cliente.
+ */
+public final class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final ProductSort sort;
+    private final Object value;
+    private final Long lastId;
+
+    private ProductCursor(ProductSort sort, Object value, Long lastId) {
+        this.sort = sort;
+        this.value = value;
+        this.lastId = lastId;
+    }
+
+    public ProductSort getSort() { return sort; }
+    public Object getValue() { return value; }
+    public Long getLastId() { return lastId; }
+
+    public static ProductCursor of(ProductSort sort, Object value, Long lastId) {
+        return new ProductCursor(sort, value, lastId);
+    }
+
+    public static ProductCursor after(ProductSort sort, ProductSummaryDto last) {
+        Object value = switch (sort.getAttribute()) {
+            case "price" -> last.getPrice();
+            case "createdAt" -> last.getCreatedAtValue();
+            default -> null;
+        };
+        return new ProductCursor(sort, value, last.getId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + (value == null ? "" : value.toString()) + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("formato inesperado");
+            }
+
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("ordenação diferente da página anterior");
+            }
+
+            Object value = null;
+            if (!parts[1].isEmpty()) {
+                value = switch (sort.getAttribute()) {
+                    case "price", "relevance" -> Double.valueOf(parts[1]);
+                    case "createdAt" -> LocalDateTime.parse(parts[1]);
+                    default -> null;
+                };
+            }
+            return new ProductCursor(sort, value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new BadRequestException("Cursor inválido: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo.auth.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.NotFoundException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exportação do catálogo completo de uma loja em NDJSON (um ProductResponseDto por linha), para integrações.
+ * Os produtos são lidos por um ScrollableResults somente leitura, em uma única consulta com as tags
+ * em LEFT JOIN (linhas consecutivas por produto): no MySQL o streaming (fetch size Integer.MIN_VALUE)
+ * não permite outra consulta na mesma conexão enquanto o cursor está aberto.
+ * Cada produto é escrito e desanexado do contexto de persistência em seguida, então a memória não cresce
+ * com o tamanho da loja.
+ * @param export Verifica a permissão e devolve o corpo a ser escrito direto na resposta (opcionalmente em gzip).
+ */
+@Service
+public class ProductExportService {
+
+    private static final int FETCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 100;
+
+    private static final String EXPORT_QUERY = """
+            SELECT p, t.name FROM Product p
+            JOIN FETCH p.store s
+            LEFT JOIN p.tags pt
+            LEFT JOIN pt.tag t
+            WHERE s.id = :storeId
+            ORDER BY p.id
+            """;
+
+    private final EntityManager entityManager;
+    private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final ObjectWriter lineWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductExportService(EntityManager entityManager, UserRepository userRepository,
+                                StoreRepository storeRepository, ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        // Uma linha por valor; o flush fica a cargo do laço (a cada FLUSH_EVERY produtos), não de cada linha
+        this.lineWriter = objectMapper.writerFor(ProductResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // A permissão é verificada antes de começar a resposta; o corpo roda depois, na thread de I/O assíncrono
+    public StreamingResponseBody export(Long storeId, String email, boolean gzip) {
+        authorize(storeId, email);
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            readOnlyTransaction.executeWithoutResult(status -> write(storeId, target));
+            if (target instanceof GZIPOutputStream compressed) compressed.finish();
+            target.flush();
+        };
+    }
+
+    private void authorize(Long storeId, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Store store = storeRepository.findById(storeId)
+                .orElseThrow(() -> new NotFoundException("Loja não encontrada"));
+
+        if (!"ADMIN".equals(String.valueOf(user.getRole())) &&
+            !store.getOwner().getId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para exportar os produtos desta loja.");
+        }
+    }
+
+    private void write(Long storeId, OutputStream out) {
+        Session session = entityManager.unwrap(Session.class);
+        boolean mySql = session.doReturningWork(connection ->
+                "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+
+        try (SequenceWriter lines = lineWriter.writeValues(out);
+             ScrollableResults<Object[]> rows = session.createSelectionQuery(EXPORT_QUERY, Object[].class)
+                     .setParameter("storeId", storeId)
+                     .setReadOnly(true)
+                     // No MySQL, Integer.MIN_VALUE liga o streaming: o driver entrega uma linha por vez
+                     .setFetchSize(mySql ? Integer.MIN_VALUE : FETCH_SIZE)
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            Product current = null;
+            List<String> tags = new ArrayList<>();
+            int written = 0;
+
+            while (rows.next()) {
+                Object[] row = rows.get();
+                Product product = (Product) row[0];
+                if (current != null && !current.getId().equals(product.getId())) {
+                    writeLine(lines, session, current, tags);
+                    tags = new ArrayList<>();
+                    if (++written % FLUSH_EVERY == 0) lines.flush();
+                }
+                current = product;
+                if (row[1] != null) tags.add((String) row[1]);
+            }
+            if (current != null) {
+                writeLine(lines, session, current, tags);
+                // o separador só vai entre os valores; o NDJSON termina cada linha com \n
+                lines.close();
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao escrever a exportação", e);
+        }
+    }
+
+    private void writeLine(SequenceWriter lines, Session session, Product product, List<String> tags)
+            throws IOException {
+        lines.write(ProductResponseDto.fromEntity(product, tags));
+        session.detach(product);
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.demo.auth.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.Tag;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductImportReportDto;
+import com.example.demo.auth.dto.ProductImportRowDto;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.exception.NotFoundException;
+import com.example.demo.shared.storage.ImageStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+/**
+ * Importação em massa de produtos de uma loja a partir de NDJSON (um objeto por linha) ou CSV com cabeçalho.
+ * A permissão é verificada uma única vez; o corpo é lido em streaming e gravado em lotes JDBC
+ * (products.import.batch-size linhas, uma transação por lote), com as tags resolvidas no dicionário.
+ * O id continua IDENTITY: o lote inteiro é um único executeBatch (reescrito em INSERT multi-linha pelo driver
+ * do MySQL com rewriteBatchedStatements) e os ids gerados voltam pelas generated keys para gravar as tags.
+ * Linhas inválidas e lotes que falham no banco entram no relatório sem interromper o restante da carga.
+ * @param importProducts Importa o conteúdo no formato informado para a loja.
+ */
+@Service
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int MAX_TAG_LENGTH = Tag.NAME_LENGTH;
+    private static final String CSV_TAG_SEPARATOR = "\\|";
+
+    private static final String INSERT_PRODUCT = """
+            INSERT INTO product (name, price, quantity, description, image_url, image_hash, discount, created_at,
+                                 store_id, average_rating, rating_sum, rating_count, rating_1_count, rating_2_count,
+                                 rating_3_count, rating_4_count, rating_5_count)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0)
+            """;
+
+    private record Row(long line, ProductImportRowDto data, String imageUrl, String imageHash, List<String> tags) {}
+
+    private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final ImageStore imageStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate tagTransaction;
+    private final ObjectMapper objectMapper;
+    private final CatalogCache catalogCache;
+    private final TagIndex tagIndex;
+    private final FacetIndex facetIndex;
+    private final StoreStatsService storeStats;
+    private final int batchSize;
+
+    public ProductImportService(UserRepository userRepository, StoreRepository storeRepository, ImageStore imageStore,
+                                JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper, CatalogCache catalogCache, TagIndex tagIndex,
+                                FacetIndex facetIndex, StoreStatsService storeStats,
+                                @Value("${products.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        this.imageStore = imageStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.tagTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.tagTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.tagIndex = tagIndex;
+        this.facetIndex = facetIndex;
+        this.storeStats = storeStats;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public ProductImportReportDto importProducts(Long storeId, String email, Format format, InputStream body)
+            throws IOException {
+        authorize(storeId, email);
+
+        ProductImportReportDto report = new ProductImportReportDto();
+        // nome em minúsculas → id no dicionário, reaproveitado entre os lotes
+        Map<String, Long> tagIds = new HashMap<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            RowReader rows = format == Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+            rows.forEach((line, data, error) -> {
+                if (error != null) {
+                    report.fail(line, error);
+                    return;
+                }
+                Row row = validate(line, data, report);
+                if (row == null) return;
+
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    flush(storeId, batch, tagIds, report);
+                    batch.clear();
+                }
+            });
+        }
+        if (!batch.isEmpty()) flush(storeId, batch, tagIds, report);
+
+        return report;
+    }
+
+    private void authorize(Long storeId, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Store store = storeRepository.findById(storeId)
+                .orElseThrow(() -> new NotFoundException("Loja não encontrada"));
+
+        if (!"ADMIN".equals(String.valueOf(user.getRole())) &&
+            !store.getOwner().getId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para adicionar produtos nesta loja.");
+        }
+    }
+
+    private Row validate(long line, ProductImportRowDto data, ProductImportReportDto report) {
+        String error = null;
+        if (data.getName() == null || data.getName().isBlank()) error = "Nome obrigatório";
+        else if (data.getPrice() == null || data.getPrice() < 0) error = "Preço obrigatório e não negativo";
+        else if (data.getQuantity() != null && data.getQuantity() < 0) error = "Quantidade não pode ser negativa";
+        else if (data.getDiscount() != null && (data.getDiscount() < 0 || data.getDiscount() > 100)) {
+            error = "Desconto deve estar entre 0 e 100";
+        }
+
+        // sem repetir a mesma tag com outra grafia: o dicionário compara sem diferenciar maiúsculas
+        Map<String, String> tags = new LinkedHashMap<>();
+        if (error == null && data.getTags() != null) {
+            for (String tag : data.getTags()) {
+                if (tag == null || tag.isBlank()) continue;
+                if (tag.trim().length() > MAX_TAG_LENGTH) {
+                    error = "A tag deve ter no máximo " + MAX_TAG_LENGTH + " caracteres";
+                    break;
+                }
+                tags.putIfAbsent(tag.trim().toLowerCase(Locale.ROOT), tag.trim());
+            }
+        }
+
+        String imageHash = null;
+        if (error == null) {
+            try {
+                imageHash = imageStore.resolveReference(data.getImageUrl());
+            } catch (BadRequestException e) {
+                error = e.getMessage();
+            }
+        }
+
+        if (error != null) {
+            report.fail(line, error);
+            return null;
+        }
+        return new Row(line, data, imageHash == null ? data.getImageUrl() : null, imageHash, List.copyOf(tags.values()));
+    }
+
+    // Cada lote é tudo ou nada: se o banco recusar, todas as linhas do lote entram como erro
+    private void flush(Long storeId, List<Row> batch, Map<String, Long> tagIds, ProductImportReportDto report) {
+        Map<String, Long> resolved = new HashMap<>(tagIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(storeId, batch, resolved));
+            tagIds.putAll(resolved);
+            report.imported(batch.size());
+        } catch (DataAccessException e) {
+            String message = "Falha ao gravar o lote: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            batch.forEach(row -> report.fail(row.line(), message));
+        }
+    }
+
+    private void insert(Long storeId, List<Row> batch, Map<String, Long> tagIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PRODUCT, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = batch.get(i);
+                        ProductImportRowDto data = row.data();
+                        ps.setString(1, data.getName().trim());
+                        ps.setDouble(2, data.getPrice());
+                        ps.setInt(3, data.getQuantity() == null ? 0 : data.getQuantity());
+                        ps.setString(4, data.getDescription());
+                        ps.setString(5, row.imageUrl());
+                        ps.setString(6, row.imageHash());
+                        if (data.getDiscount() == null) ps.setNull(7, Types.DOUBLE); else ps.setDouble(7, data.getDiscount());
+                        ps.setTimestamp(8, now);
+                        ps.setLong(9, storeId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                },
+                keys);
+
+        List<Long> ids = keys.getKeyList().stream()
+                .map(key -> ((Number) key.values().iterator().next()).longValue())
+                .toList();
+
+        Map<Long, Double> prices = new HashMap<>();
+        Map<String, List<Long>> productsByTag = new LinkedHashMap<>();
+        List<Object[]> links = new ArrayList<>();
+        resolveTags(batch, tagIds);
+        for (int i = 0; i < batch.size(); i++) {
+            Long productId = ids.get(i);
+            prices.put(productId, batch.get(i).data().getPrice());
+            for (String tag : batch.get(i).tags()) {
+                String key = tag.toLowerCase(Locale.ROOT);
+                links.add(new Object[] {productId, tagIds.get(key)});
+                productsByTag.computeIfAbsent(key, k -> new ArrayList<>()).add(productId);
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO product_tag (product_id, tag_id) VALUES (?, ?)", links);
+        }
+
+        storeStats.productsAdded(storeId, batch.size(),
+                batch.stream().mapToDouble(row -> row.data().getPrice()).sum(),
+                batch.stream().mapToLong(row -> row.data().getQuantity() == null ? 0 : row.data().getQuantity()).sum());
+        facetIndex.productsCreated(prices);
+        tagIndex.addedAll(productsByTag);
+        catalogCache.productChanged(storeId);
+        if (!links.isEmpty()) catalogCache.tagsChanged();
+    }
+
+    // Busca as tags do lote que ainda não estão no mapa e cria no dicionário as que não existem.
+    // Cada tag nova é gravada na própria transação (como em ProductTagService): se outra carga ou requisição
+    // gravar o mesmo nome antes, o uk_tag_name recusa só esse INSERT, e não o lote inteiro
+    private void resolveTags(List<Row> batch, Map<String, Long> tagIds) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        batch.forEach(row -> row.tags().forEach(tag -> {
+            String key = tag.toLowerCase(Locale.ROOT);
+            if (!tagIds.containsKey(key)) missing.putIfAbsent(key, tag);
+        }));
+        if (missing.isEmpty()) return;
+
+        namedJdbcTemplate.query("SELECT id, name FROM tag WHERE name IN (:names)",
+                new MapSqlParameterSource("names", missing.values()),
+                rs -> {
+                    String key = rs.getString("name").toLowerCase(Locale.ROOT);
+                    tagIds.put(key, rs.getLong("id"));
+                    missing.remove(key);
+                });
+
+        for (Map.Entry<String, String> tag : missing.entrySet()) {
+            tagIds.put(tag.getKey(), createTag(tag.getValue()));
+        }
+    }
+
+    private long createTag(String name) {
+        try {
+            return tagTransaction.execute(status -> {
+                KeyHolder key = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement("INSERT INTO tag (name) VALUES (?)", new String[] {"id"});
+                    ps.setString(1, name);
+                    return ps;
+                }, key);
+                return key.getKey().longValue();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Outra transação gravou o mesmo nome entre a busca e o INSERT; uma transação nova já enxerga o commit dela
+            List<Long> ids = tagTransaction.execute(
+                    status -> jdbcTemplate.queryForList("SELECT id FROM tag WHERE name = ?", Long.class, name));
+            if (ids.isEmpty()) throw e;
+            return ids.get(0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(long line, ProductImportRowDto data, String error);
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        void forEach(RowConsumer consumer) throws IOException;
+    }
+
+    // Uma linha por objeto: um JSON inválido só invalida a própria linha
+    private RowReader ndjsonRows(BufferedReader reader) {
+        return consumer -> {
+            long line = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) continue;
+                ProductImportRowDto data;
+                try {
+                    data = objectMapper.readValue(text, ProductImportRowDto.class);
+                } catch (JsonProcessingException e) {
+                    consumer.accept(line, null, "JSON inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                // "null" é JSON válido, mas não é um produto
+                if (data == null) consumer.accept(line, null, "A linha deve conter um objeto JSON");
+                else consumer.accept(line, data, null);
+            }
+        };
+    }
+
+    // As colunas são lidas como texto e convertidas por linha, para que um valor inválido não pare a leitura.
+    // Cada registro vem como array e é casado com o cabeçalho aqui: uma linha com colunas a mais é relatada,
+    // em vez de derrubar o iterador; só um erro de sintaxe (aspas sem fechar) encerra a leitura.
+    private RowReader csvRows(BufferedReader reader) {
+        return consumer -> {
+            CsvMapper csvMapper = new CsvMapper();
+            try (MappingIterator<String[]> rows = csvMapper.readerFor(String[].class)
+                    .with(CsvParser.Feature.WRAP_AS_ARRAY)
+                    .readValues(reader)) {
+                String[] header = null;
+                while (true) {
+                    long line = rows.getCurrentLocation().getLineNr();
+                    String[] values;
+                    try {
+                        if (!rows.hasNextValue()) break;
+                        line = rows.getCurrentLocation().getLineNr();
+                        values = rows.nextValue();
+                    } catch (JsonProcessingException e) {
+                        consumer.accept(Math.max(line, 1), null, "CSV inválido, leitura interrompida: " + e.getOriginalMessage());
+                        break;
+                    }
+                    if (header == null) {
+                        header = values;
+                        continue;
+                    }
+                    if (values.length > header.length) {
+                        consumer.accept(line, null, "Colunas demais: esperado " + header.length + ", recebido " + values.length);
+                        continue;
+                    }
+
+                    Map<String, String> columns = new HashMap<>();
+                    for (int i = 0; i < values.length; i++) {
+                        if (values[i] != null && !values[i].isEmpty()) columns.put(header[i], values[i]);
+                    }
+                    String tags = columns.remove("tags");
+                    try {
+                        ProductImportRowDto data = objectMapper.convertValue(columns, ProductImportRowDto.class);
+                        if (tags != null) data.setTags(Arrays.asList(tags.split(CSV_TAG_SEPARATOR)));
+                        consumer.accept(line, data, null);
+                    } catch (IllegalArgumentException e) {
+                        consumer.accept(line, null, "Valor inválido: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            }
+        };
+    }
+}
@@ -2,6 +2,8 @@ package com.example.demo.auth.service;
 
 import java.util.Optional;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +15,7 @@ import com.example.demo.auth.dto.RatingRequest;
 import com.example.demo.auth.repository.ProductRatingRepository;
 import com.example.demo.auth.repository.ProductRepository;
 import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.BadRequestException;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,10 +26,16 @@ public class ProductRatingService {
     private final ProductRatingRepository ratingRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final RatingIngestionPipeline ingestionPipeline;
 
     @Transactional
     public ProductRatingResponseDto rateProduct(Long productId, String email, RatingRequest ratingRequest) {
 
+        Integer newValue = ratingRequest.getRating();
+        if (newValue == null || newValue < 1 || newValue > 5) {
+            throw new BadRequestException("A avaliação deve ser um valor entre 1 e 5");
+        }
+
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
@@ -36,26 +45,34 @@ public class ProductRatingService {
         Optional<ProductRating> existing = ratingRepository.findByProduct_IdAndUser_Id(productId, user.getId());
 
         ProductRating rating;
+        Integer oldValue = null;
 
         if (existing.isPresent()) {
             rating = existing.get();
-            rating.setRating(ratingRequest.getRating());
+            oldValue = rating.getRating();
+            if (newValue.equals(oldValue)) {
+                return new ProductRatingResponseDto(product.getAverageRating());
+            }
+            rating.setRating(newValue);
         } else {
             rating = ProductRating.builder()
                     .product(product)
                     .user(user)
-                    .rating(ratingRequest.getRating())
+                    .rating(newValue)
                     .build();
         }
 
         ratingRepository.save(rating);
+        RatingDelta delta = RatingDelta.of(oldValue, newValue);
 
-        double newAverage = ratingRepository.getAverageRating(productId).orElse(0.0);
-
-        product.setAverageRating(newAverage);
-        productRepository.save(product);
+        if (ingestionPipeline.isAsync()) {
+            // Modo write-behind: devolve a média estimada com este voto; o agregado é gravado no próximo flush
+            ingestionPipeline.enqueue(productId, delta);
+            return new ProductRatingResponseDto(estimateAverage(product, delta));
+        }
 
-        return new ProductRatingResponseDto(newAverage);
+        applyDelta(productId, delta);
+        return new ProductRatingResponseDto(getAverageRating(productId));
     }
 
     @Transactional
@@ -64,18 +81,50 @@ public class ProductRatingService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        ratingRepository.deleteByProduct_IdAndUser_Id(productId, user.getId());
+        if (!productRepository.existsById(productId)) {
+            throw new RuntimeException("Produto não encontrado");
+        }
 
-        double newAverage = ratingRepository.getAverageRating(productId).orElse(0.0);
+        Optional<ProductRating> existing = ratingRepository.findByProduct_IdAndUser_Id(productId, user.getId());
+        if (existing.isEmpty()) {
+            return;
+        }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Produto não encontrado"));
+        ratingRepository.delete(existing.get());
+        RatingDelta delta = RatingDelta.of(existing.get().getRating(), null);
 
-        product.setAverageRating(newAverage);
-        productRepository.save(product);
+        if (ingestionPipeline.isAsync()) {
+            ingestionPipeline.enqueue(productId, delta);
+        } else {
+            applyDelta(productId, delta);
+        }
     }
 
     public Double getAverageRating(Long productId) {
-        return ratingRepository.getAverageRating(productId).orElse(0.0);
+        return productRepository.findAverageRating(productId).orElse(0.0);
+    }
+
+    /**
+     * Corrige produtos avaliados antes da existência das colunas de agregados.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRatingAggregates() {
+        productRepository.backfillRatingAggregates();
+    }
+
+    /**
+     * Aplica em O(1) o delta de um voto nos agregados do produto. A avaliação da loja (store_stats) não é
+     * tocada aqui: um UPDATE por voto na linha da loja a tornaria um ponto de disputa; ela é acertada pela
+     * reconciliação de StoreStatsService (ou pelo flush agrupado, no modo assíncrono).
+     */
+    private void applyDelta(Long productId, RatingDelta delta) {
+        productRepository.applyRatingDelta(productId, delta.getSumDelta(), delta.getCountDelta(),
+                delta.star(1), delta.star(2), delta.star(3), delta.star(4), delta.star(5));
+    }
+
+    private Double estimateAverage(Product product, RatingDelta delta) {
+        long count = product.getRatingCount() + delta.getCountDelta();
+        return count <= 0 ? 0.0 : (double) (product.getRatingSum() + delta.getSumDelta()) / count;
     }
 }
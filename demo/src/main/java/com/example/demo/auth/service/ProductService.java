@@ -1,20 +1,35 @@
 package com.example.demo.auth.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.example.demo.auth.domain.Product;
 import com.example.demo.auth.domain.Store;
 import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductFacetsDto;
+import com.example.demo.auth.dto.ProductPageResponseDto;
 import com.example.demo.auth.dto.ProductRequestDto;
 import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.dto.ProductSummaryDto;
 import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.ProductSearchQuery;
+import com.example.demo.auth.repository.ProductSort;
+import com.example.demo.auth.repository.ProductSpecifications;
 import com.example.demo.auth.repository.StoreRepository;
 import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.ConflictException;
+import com.example.demo.shared.exception.NotFoundException;
+import com.example.demo.shared.storage.ImageStore;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -23,18 +38,35 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TAG_ID_FILTER = 1000;
+
     private final ProductRepository productRepository;
     private final StoreRepository storeRepository;
     private final UserRepository userRepository;
+    private final ImageStore imageStore;
+    private final CatalogCache catalogCache;
+    private final TagIndex tagIndex;
+    private final FacetIndex facetIndex;
+    private final StoreStatsService storeStats;
 
     // ===========================
     // LISTAR POR LOJA (EXISTENTE)
     // ===========================
-    public List<ProductResponseDto> getByStore(Long storeId) {
-        return productRepository.findByStore_Id(storeId)
-                .stream()
+    @Cacheable(cacheNames = CatalogCache.STORE_PRODUCTS)
+    public List<ProductSummaryDto> getByStore(Long storeId) {
+        return productRepository.findSummariesByStoreId(storeId);
+    }
+
+    // ===========================
+    // DETALHE DO PRODUTO
+    // ===========================
+    @Transactional
+    public ProductResponseDto getById(Long id) {
+        return productRepository.findById(id)
                 .map(ProductResponseDto::fromEntity)
-                .collect(Collectors.toList());
+                .orElseThrow(() -> new NotFoundException("Produto não encontrado"));
     }
 
     // ===========================
@@ -55,13 +87,17 @@ public class ProductService {
                 .price(dto.getPrice())
                 .quantity(dto.getQuantity())
                 .description(dto.getDescription())
-                .imageUrl(dto.getImageUrl())
                 .discount(dto.getDiscount())
                 .createdAt(LocalDateTime.now())
                 .store(store)
                 .build();
+        applyImage(product, dto.getImageUrl());
 
-        return ProductResponseDto.fromEntity(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        storeStats.productAdded(storeId, saved.getPrice(), saved.getQuantity());
+        facetIndex.productSaved(saved.getId(), saved.getPrice(), saved.getAverageRating());
+        catalogCache.productChanged(storeId);
+        return ProductResponseDto.fromEntity(saved);
     }
 
     // ===========================
@@ -76,17 +112,102 @@ public class ProductService {
             !product.getStore().getOwner().getId().equals(user.getId())) {
             throw new RuntimeException("Você não tem permissão para editar este produto.");
         }
+        checkVersion(product, dto.getVersion());
+        Double oldPrice = product.getPrice();
 
         product.setName(dto.getName());
         product.setPrice(dto.getPrice());
-        product.setQuantity(dto.getQuantity());
         product.setDescription(dto.getDescription());
-        product.setImageUrl(dto.getImageUrl());
+        applyImage(product, dto.getImageUrl());
         product.setDiscount(dto.getDiscount());
 
+        return saveEdited(product, oldPrice, dto.getQuantity());
+    }
+
+    // ===========================
+    // EDIÇÃO PARCIAL (PATCH)
+    // ===========================
+    // Só os campos informados mudam; com @DynamicUpdate, trocar só o preço é um UPDATE de price e version
+    @Transactional
+    public ProductResponseDto patch(Long id, ProductRequestDto dto, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Produto não encontrado"));
+
+        if (!"ADMIN".equals(String.valueOf(user.getRole())) &&
+            !product.getStore().getOwner().getId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para editar este produto.");
+        }
+        checkVersion(product, dto.getVersion());
+        Double oldPrice = product.getPrice();
+
+        if (dto.getName() != null) product.setName(dto.getName());
+        if (dto.getPrice() != null) product.setPrice(dto.getPrice());
+        if (dto.getDescription() != null) product.setDescription(dto.getDescription());
+        if (dto.getImageUrl() != null) applyImage(product, dto.getImageUrl());
+        if (dto.getDiscount() != null) product.setDiscount(dto.getDiscount());
+
+        return saveEdited(product, oldPrice, dto.getQuantity());
+    }
+
+    private static void checkVersion(Product product, Long expected) {
+        if (expected != null && !expected.equals(product.getVersion())) {
+            throw new ConflictException("O produto foi alterado por outra pessoa; recarregue e tente novamente.");
+        }
+    }
+
+    // flush aqui para a resposta já trazer a versão nova (e um conflito concorrente virar 409 nesta chamada)
+    private ProductResponseDto saveEdited(Product product, Double oldPrice, Integer quantity) {
+        Long id = product.getId();
+        facetIndex.productSaved(id, product.getPrice(), product.getAverageRating());
+        catalogCache.productChanged(product.getStore().getId());
+        ProductResponseDto response = ProductResponseDto.fromEntity(productRepository.saveAndFlush(product));
+
+        // O estoque muda por diferença em relação ao valor lido, sem sobrescrever reservas feitas nesse meio tempo
+        Integer current = product.getQuantity();
+        int stockDelta = 0;
+        if (quantity != null && !quantity.equals(current)) {
+            stockDelta = quantity - (current == null ? 0 : current);
+            if (productRepository.adjustStock(id, stockDelta) == 0) {
+                throw new ConflictException("O estoque foi reservado enquanto o produto era editado; recarregue e tente novamente.");
+            }
+            response.setQuantity(productRepository.findQuantity(id).orElse(null));
+        }
+        storeStats.productChanged(product.getStore().getId(), oldPrice, product.getPrice(), stockDelta);
+        return response;
+    }
+
+    // ===========================
+    // IMAGEM DO PRODUTO
+    // ===========================
+    @Transactional
+    public ProductResponseDto updateImage(Long id, MultipartFile file, String email) {
+        User user = userRepository.findByEmail(email).orElseThrow();
+        Product product = productRepository.findById(id).orElseThrow();
+
+        if (!"ADMIN".equals(String.valueOf(user.getRole())) &&
+            !product.getStore().getOwner().getId().equals(user.getId())) {
+            throw new RuntimeException("Você não tem permissão para editar este produto.");
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            product.setImageHash(imageStore.store(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a imagem enviada", e);
+        }
+        product.setImageUrl(null);
+
+        catalogCache.productChanged(product.getStore().getId());
         return ProductResponseDto.fromEntity(productRepository.save(product));
     }
 
+    // Data URIs e URLs /api/images viram hash no ImageStore; outros valores (URL externa) ficam em imageUrl
+    private void applyImage(Product product, String imageUrl) {
+        String hash = imageStore.resolveReference(imageUrl);
+        product.setImageHash(hash);
+        product.setImageUrl(hash == null ? imageUrl : null);
+    }
+
     // ===========================
     // DELETAR PRODUTO (EXISTENTE)
     // ===========================
@@ -101,56 +222,95 @@ public class ProductService {
         }
 
         productRepository.delete(product);
+        storeStats.productRemoved(product.getStore().getId(), product.getPrice(), product.getQuantity(),
+                product.getRatingSum(), product.getRatingCount());
+        tagIndex.productRemoved(product.getId());
+        facetIndex.productRemoved(product.getId());
+        catalogCache.productChanged(product.getStore().getId());
+        // as tags do produto são removidas em cascata
+        catalogCache.tagsChanged();
     }
 
     // ==================================================
-    // NOVO MÉTODO - LISTAGEM GERAL + BUSCA + TAGS + SORT
+    // LISTAGEM GERAL + BUSCA + TAGS + SORT (CURSOR)
     // ==================================================
-    public List<ProductResponseDto> listProducts(String search, String sortBy, List<String> tags) {
+    @Cacheable(cacheNames = CatalogCache.PRODUCTS)
+    public ProductPageResponseDto listProducts(String search, String sortBy, List<String> tags, boolean matchAllTags,
+                                               boolean withFacets, String cursor, Integer size) {
 
-        List<Product> products;
+        ProductSort sort = ProductSort.fromParam(sortBy, search);
+        int pageSize = (size == null) ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean firstPage = cursor == null || cursor.isBlank();
 
-        // 🔎 Garantir que search nunca será null
-        String searchValue = (search == null) ? "" : search.trim();
-
-        // 🔍 FILTROS
-        if (tags != null && !tags.isEmpty()) {
-            products = productRepository.findByTagsAndSearch(tags, searchValue);
+        Specification<Product> tagFilter = ProductSpecifications.hasTags(tags, matchAllTags);
+        RoaringBitmap tagged = null;
+        if (tags != null && !tags.isEmpty() && tagIndex.isReady()) {
+            tagged = tagIndex.match(tags, matchAllTags);
+            if (tagged.isEmpty()) {
+                return new ProductPageResponseDto(List.of(), null, withFacets && firstPage ? facets(tagged) : null);
+            }
+            // Conjuntos pequenos viram IN (...) pela PK; os grandes ficam com o EXISTS indexado
+            if (tagged.getCardinality() <= MAX_TAG_ID_FILTER) {
+                tagFilter = ProductSpecifications.idIn(toIds(tagged));
+            }
         }
-        else if (!searchValue.isEmpty()) {
-            products = productRepository.searchProducts(searchValue);
+
+        Specification<Product> spec = ProductSpecifications.matchesSearch(search).and(tagFilter);
+
+        // Facetas só na primeira página: as seguintes têm o mesmo filtro
+        ProductFacetsDto facets = null;
+        if (withFacets && firstPage && facetIndex.isReady() && (tagged != null || tags == null || tags.isEmpty())) {
+            facets = facets(filterBitmap(search, spec, tagged));
         }
-        else {
-            products = productRepository.findAll();
+
+        if (sort == ProductSort.RELEVANCE) {
+            spec = spec.and(ProductSpecifications.orderByRelevance(search));
         }
 
-        // 🔽 ORDENAR RESULTADOS
-        if (sortBy != null) {
-            switch (sortBy) {
-                case "price_asc":
-                    products.sort(Comparator.comparing(Product::getPrice));
-                    break;
+        if (!firstPage) {
+            ProductCursor position = ProductCursor.decode(cursor, sort);
+            spec = spec.and(ProductSpecifications.after(sort, position.getValue(), position.getLastId(), search));
+        }
 
-                case "price_desc":
-                    products.sort(Comparator.comparing(Product::getPrice).reversed());
-                    break;
+        // 🔽 Ordenação e limite no banco: busca um item a mais para saber se existe próxima página
+        List<ProductSummaryDto> items = productRepository.findSummaries(spec, sort.toSort(), pageSize + 1);
 
-                case "newest":
-                    products.sort(Comparator.comparing(Product::getCreatedAt).reversed());
-                    break;
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = nextCursor(sort, items.get(pageSize - 1), search).encode();
+        }
 
-                case "oldest":
-                    products.sort(Comparator.comparing(Product::getCreatedAt));
-                    break;
+        return new ProductPageResponseDto(items, nextCursor, facets);
+    }
 
-                default:
-                    break;
-            }
+    // Sem busca textual o filtro é resolvido só com bitmaps; com busca, os ids vêm de uma consulta sem ordenação
+    private RoaringBitmap filterBitmap(String search, Specification<Product> spec, RoaringBitmap tagged) {
+        if (search != null && !search.isBlank()) {
+            RoaringBitmap matched = new RoaringBitmap();
+            productRepository.findIds(spec).forEach(id -> matched.add(Math.toIntExact(id)));
+            return matched;
         }
+        return tagged != null ? tagged : facetIndex.all();
+    }
 
-        // 🔄 Converter para DTO
-        return products.stream()
-                .map(ProductResponseDto::fromEntity)
-                .collect(Collectors.toList());
+    private ProductFacetsDto facets(RoaringBitmap filter) {
+        return facetIndex.isReady() ? facetIndex.count(filter, tagIndex.snapshot()) : null;
+    }
+
+    private static List<Long> toIds(RoaringBitmap bitmap) {
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
+    }
+
+    private ProductCursor nextCursor(ProductSort sort, ProductSummaryDto last, String search) {
+        if (sort != ProductSort.RELEVANCE) {
+            return ProductCursor.after(sort, last);
+        }
+        // A relevância não é coluna da entidade: consulta só a do último item da página (busca por PK)
+        String booleanQuery = ProductSearchQuery.toBooleanQuery(search);
+        Double score = (booleanQuery == null) ? null : productRepository.relevanceOf(last.getId(), booleanQuery);
+        return ProductCursor.of(sort, score, last.getId());
     }
 }
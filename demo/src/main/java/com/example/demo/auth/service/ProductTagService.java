@@ -2,24 +2,85 @@ package com.example.demo.auth.service;
 
 import java.util.List;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.demo.auth.domain.ProductTag;
+import com.example.demo.auth.domain.Tag;
+import com.example.demo.auth.dto.TagResponseDto;
+import com.example.demo.auth.repository.ProductRepository;
 import com.example.demo.auth.repository.ProductTagRepository;
+import com.example.demo.auth.repository.TagRepository;
+import com.example.demo.shared.exception.BadRequestException;
 
+/**
+ * Tags de produto sobre o dicionário normalizado (tag + product_tag).
+ * Cada associação criada ou removida também atualiza o TagIndex, após o commit.
+ * @param createTag Associa ao produto a tag com o nome informado, criando-a no dicionário se preciso.
+ * @param getTagsByProduct Associações de um produto, já com o nome da tag.
+ * @param deleteTag Remove uma associação produto ↔ tag (a tag continua no dicionário).
+ * @param getAllTags Tags em uso, uma vez cada, com a quantidade de produtos.
+ */
 @Service
 public class ProductTagService {
 
+    private static final int MAX_TAG_LENGTH = Tag.NAME_LENGTH;
+
     private final ProductTagRepository repository;
+    private final TagRepository tagRepository;
+    private final ProductRepository productRepository;
+    private final CatalogCache catalogCache;
+    private final TagIndex tagIndex;
+    private final TransactionTemplate tagTransaction;
 
-    public ProductTagService(ProductTagRepository repository) {
+    public ProductTagService(ProductTagRepository repository, TagRepository tagRepository,
+                             ProductRepository productRepository, CatalogCache catalogCache, TagIndex tagIndex,
+                             PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.tagRepository = tagRepository;
+        this.productRepository = productRepository;
+        this.catalogCache = catalogCache;
+        this.tagIndex = tagIndex;
+        // O INSERT da tag roda à parte: uma violação de uk_tag_name não marca a transação da requisição para rollback
+        this.tagTransaction = new TransactionTemplate(transactionManager);
+        this.tagTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
-    public ProductTag createTag(ProductTag tag) {
-        return repository.save(tag);
+    public ProductTag createTag(Long productId, String tagName) {
+        String name = tagName.trim();
+        if (name.length() > MAX_TAG_LENGTH) {
+            throw new BadRequestException("A tag deve ter no máximo " + MAX_TAG_LENGTH + " caracteres");
+        }
+        Tag tag = findOrCreateTag(name);
+
+        var existing = repository.findByProductIdAndTagId(productId, tag.getId());
+        if (existing.isPresent()) return existing.get();
+
+        ProductTag saved = repository.save(ProductTag.builder()
+                .tag(tagRepository.getReferenceById(tag.getId()))
+                .product(productRepository.getReferenceById(productId))
+                .build());
+
+        tagIndex.added(tag.getName(), productId);
+        catalogCache.tagsChanged();
+        return saved;
+    }
+
+    private Tag findOrCreateTag(String name) {
+        return tagRepository.findByName(name).orElseGet(() -> {
+            try {
+                return tagTransaction.execute(status -> tagRepository.save(Tag.builder().name(name).build()));
+            } catch (DataIntegrityViolationException e) {
+                // Outra requisição gravou o mesmo nome entre a busca e o INSERT; uma transação nova já enxerga o commit dela
+                return tagTransaction.execute(status -> tagRepository.findByName(name)).orElseThrow(() -> e);
+            }
+        });
     }
 
     public List<ProductTag> getTagsByProduct(Long productId) {
@@ -28,11 +89,16 @@ public class ProductTagService {
 
     @Transactional
     public void deleteTag(Long tagId) {
-        repository.deleteById(tagId);
+        repository.findById(tagId).ifPresent(productTag -> {
+            repository.delete(productTag);
+            tagIndex.removed(productTag.getTagName(), productTag.getProduct().getId());
+            catalogCache.tagsChanged();
+        });
     }
 
-    public List<ProductTag> getAllTags() {
-        return repository.findAll();
+    @Cacheable(cacheNames = CatalogCache.TAGS)
+    public List<TagResponseDto> getAllTags() {
+        return tagRepository.findAllInUse();
     }
 
 }
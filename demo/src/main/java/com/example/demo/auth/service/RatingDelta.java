@@ -0,0 +1,43 @@
+package com.example.demo.auth.service;
+
+import lombok.Getter;
+
+/**
+ * Efeito de um voto (troca oldValue -> newValue) sobre os agregados de avaliação de um produto.
+ * oldValue null representa um voto novo; newValue null representa um voto removido.
+ */
+public final class RatingDelta {
+
+    @Getter
+    private final long sumDelta;
+    @Getter
+    private final long countDelta;
+    private final long[] histogram = new long[6];
+
+    private RatingDelta(Integer oldValue, Integer newValue) {
+        long sum = 0;
+        long count = 0;
+
+        if (oldValue != null) {
+            histogram[oldValue]--;
+            sum -= oldValue;
+            count--;
+        }
+        if (newValue != null) {
+            histogram[newValue]++;
+            sum += newValue;
+            count++;
+        }
+
+        this.sumDelta = sum;
+        this.countDelta = count;
+    }
+
+    public static RatingDelta of(Integer oldValue, Integer newValue) {
+        return new RatingDelta(oldValue, newValue);
+    }
+
+    public long star(int value) {
+        return histogram[value];
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.auth.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.auth.domain.PendingRatingDelta;
+import com.example.demo.auth.repository.PendingRatingDeltaRepository;
+import com.example.demo.auth.repository.PendingRatingDeltaRepository.CoalescedRatingDelta;
+import com.example.demo.auth.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Ingestão assíncrona (write-behind) dos agregados de avaliação.
+ * Com ratings.ingestion.async=true, cada voto grava apenas um delta em pending_rating_delta (INSERT, sem
+ * tocar a linha do produto). Um flush periódico soma os deltas pendentes por produto e aplica um único
+ * UPDATE por produto (e o mesmo delta em store_stats), tirando a disputa pelas linhas de product e da loja do
+ * caminho da requisição.
+ * Cada rodada do flush lê os ids pendentes, soma e apaga exatamente esses ids, em lotes de FLUSH_BATCH.
+ * Deltas pendentes ficam no banco, então são recuperados no próximo start (considera uma única instância).
+ * Métricas: ratings.ingestion.queue.depth (votos pendentes) e ratings.ingestion.flush.latency.
+ */
+@Component
+public class RatingIngestionPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingIngestionPipeline.class);
+    private static final int FLUSH_BATCH = 1000;
+
+    private final PendingRatingDeltaRepository pendingRepository;
+    private final ProductRepository productRepository;
+    private final StoreStatsService storeStats;
+    private final boolean async;
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer flushTimer;
+
+    public RatingIngestionPipeline(PendingRatingDeltaRepository pendingRepository,
+                                   ProductRepository productRepository,
+                                   StoreStatsService storeStats,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ratings.ingestion.async:false}") boolean async) {
+        this.pendingRepository = pendingRepository;
+        this.productRepository = productRepository;
+        this.storeStats = storeStats;
+        this.async = async;
+
+        Gauge.builder("ratings.ingestion.queue.depth", pending, AtomicLong::get)
+                .description("Votos aguardando aplicação nos agregados do produto")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("ratings.ingestion.flush.latency")
+                .description("Duração de cada flush dos deltas de avaliação")
+                .register(meterRegistry);
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Registra o delta na transação corrente; o contador de pendentes só sobe após o commit.
+     */
+    public void enqueue(Long productId, RatingDelta delta) {
+        pendingRepository.save(PendingRatingDelta.builder()
+                .productId(productId)
+                .sumDelta(delta.getSumDelta())
+                .countDelta(delta.getCountDelta())
+                .d1(delta.star(1))
+                .d2(delta.star(2))
+                .d3(delta.star(3))
+                .d4(delta.star(4))
+                .d5(delta.star(5))
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.incrementAndGet();
+                }
+            });
+        } else {
+            pending.incrementAndGet();
+        }
+    }
+
+    /**
+     * Aplica deltas deixados por uma execução anterior, inclusive se o modo assíncrono foi desligado.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPending() {
+        long recovered = pendingRepository.count();
+        if (recovered > 0) {
+            log.info("Recuperando {} deltas de avaliação pendentes", recovered);
+            pending.set(recovered);
+            flush();
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${ratings.ingestion.flush-interval-ms:200}")
+    public void scheduledFlush() {
+        if (async && pending.get() > 0) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        flushTimer.record(() -> {
+            List<Long> ids;
+            do {
+                ids = pendingRepository.findPendingIds(Limit.of(FLUSH_BATCH));
+                if (ids.isEmpty()) {
+                    pending.set(0);
+                    return;
+                }
+
+                for (CoalescedRatingDelta d : pendingRepository.coalesce(ids)) {
+                    productRepository.applyRatingDelta(d.getProductId(), d.getSumDelta(), d.getCountDelta(),
+                            d.getD1(), d.getD2(), d.getD3(), d.getD4(), d.getD5());
+                    storeStats.ratingsChanged(d.getProductId(), d.getSumDelta(), d.getCountDelta());
+                }
+                int applied = pendingRepository.deleteApplied(ids);
+                pending.updateAndGet(current -> Math.max(0, current - applied));
+            } while (ids.size() == FLUSH_BATCH);
+        });
+    }
+}
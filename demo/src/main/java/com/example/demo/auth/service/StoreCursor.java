@@ -0,0 +1,49 @@
+package com.example.demo.auth.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.demo.shared.exception.BadRequestException;
+
+/**
+ * Cursor (keyset) do diretório público de lojas: nome e id da última loja entregue,
+ * serializados em um token Base64 opaco para o cliente.
+ */
+public final class StoreCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String name;
+    private final Long lastId;
+
+    private StoreCursor(String name, Long lastId) {
+        this.name = name;
+        this.lastId = lastId;
+    }
+
+    public String getName() { return name; }
+    public Long getLastId() { return lastId; }
+
+    public static StoreCursor of(String name, Long lastId) {
+        return new StoreCursor(name, lastId);
+    }
+
+    // O id vai primeiro: o nome pode conter o separador
+    public String encode() {
+        String raw = lastId + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static StoreCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("formato inesperado");
+            }
+            return new StoreCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido: " + e.getMessage());
+        }
+    }
+}
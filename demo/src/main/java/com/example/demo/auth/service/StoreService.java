@@ -1,17 +1,30 @@
 package com.example.demo.auth.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.AccessDeniedException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.StoreStats;
 import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.CursorPageResponseDto;
 import com.example.demo.auth.dto.StoreRequestDto;
 import com.example.demo.auth.dto.StoreResponseDto;
+import com.example.demo.auth.dto.StoreSummaryDto;
 import com.example.demo.auth.repository.StoreRepository;
 import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.ConflictException;
+import com.example.demo.shared.storage.ImageStore;
 
 import jakarta.transaction.Transactional;
 
@@ -20,20 +33,36 @@ import jakarta.transaction.Transactional;
  * Inclui criação, atualização, exclusão e recuperação de lojas.
  * Assegura que apenas proprietários ou administradores possam modificar ou deletar lojas.
  * @param createStore Método para criar uma nova loja.
- * @param updateStore Método para atualizar uma loja existente.
+ * @param updateStore Método para atualizar uma loja existente (só os campos informados; 409 se a versão enviada estiver desatualizada).
  * @param deleteStore Método para deletar uma loja.
  * @param findAll Método para listar todas as lojas.
  * @param findById Método para buscar uma loja por ID.
+ * @param findMyStores Lojas do usuário: uma consulta por email com o dono no JOIN, em cache por dono.
+ * @param findPublicDirectory Diretório público paginado por cursor (nome, id), com busca por prefixo do nome e resumo sem imagem.
+ * @param updateImage Método para enviar a imagem da loja para o ImageStore.
+ * As respostas trazem as estatísticas de store_stats (StoreStatsService), lidas em uma consulta por listagem.
  */
 @Service
 public class StoreService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final StoreRepository storeRepository;
     private final UserRepository userRepository;
+    private final ImageStore imageStore;
+    private final CatalogCache catalogCache;
+    private final StoreStatsService storeStats;
+    private final OwnerStores ownerStores;
 
-    public StoreService(StoreRepository storeRepository, UserRepository userRepository) {
+    public StoreService(StoreRepository storeRepository, UserRepository userRepository, ImageStore imageStore,
+                        CatalogCache catalogCache, StoreStatsService storeStats, OwnerStores ownerStores) {
         this.storeRepository = storeRepository;
         this.userRepository = userRepository;
+        this.imageStore = imageStore;
+        this.catalogCache = catalogCache;
+        this.storeStats = storeStats;
+        this.ownerStores = ownerStores;
     }
 
     @Transactional
@@ -45,13 +74,16 @@ public class StoreService {
                 .name(dto.getName())
                 .address(dto.getAddress())
                 .contact(dto.getContact())
-                .imageUrl(dto.getImageUrl())
                 .description(dto.getDescription())
                 .owner(owner)
                 .build();
+        applyImage(store, dto.getImageUrl());
 
         storeRepository.save(store);
-        return StoreResponseDto.fromEntity(store);
+        storeStats.storeCreated(store.getId());
+        catalogCache.storeListChanged(store.getId());
+        catalogCache.ownerStoresChanged(owner.getEmail());
+        return withStats(StoreResponseDto.fromEntity(store));
     }
 
     @Transactional
@@ -62,15 +94,50 @@ public class StoreService {
         if (!isAdmin && !store.getOwner().getEmail().equals(userEmail)) {
             throw new AccessDeniedException("Você só pode editar suas próprias lojas");
         }
+        if (dto.getVersion() != null && !dto.getVersion().equals(store.getVersion())) {
+            throw new ConflictException("A loja foi alterada por outra pessoa; recarregue e tente novamente.");
+        }
 
         if (dto.getName() != null) store.setName(dto.getName());
         if (dto.getAddress() != null) store.setAddress(dto.getAddress());
         if (dto.getContact() != null) store.setContact(dto.getContact());
-        if (dto.getImageUrl() != null) store.setImageUrl(dto.getImageUrl());
+        if (dto.getImageUrl() != null) applyImage(store, dto.getImageUrl());
         if (dto.getDescription() != null) store.setDescription(dto.getDescription());
 
+        // flush aqui para a resposta já trazer a versão nova (e um conflito concorrente virar 409 nesta chamada)
+        storeRepository.saveAndFlush(store);
+        catalogCache.storeChanged(store.getId());
+        catalogCache.ownerStoresChanged(store.getOwner().getEmail());
+        return withStats(StoreResponseDto.fromEntity(store));
+    }
+
+    @Transactional
+    public StoreResponseDto updateImage(Long id, String userEmail, MultipartFile file, boolean isAdmin) throws AccessDeniedException {
+        Store store = storeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Loja não encontrada"));
+
+        if (!isAdmin && !store.getOwner().getEmail().equals(userEmail)) {
+            throw new AccessDeniedException("Você só pode editar suas próprias lojas");
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            store.setImageHash(imageStore.store(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a imagem enviada", e);
+        }
+        store.setImageUrl(null);
+
         storeRepository.save(store);
-        return StoreResponseDto.fromEntity(store);
+        catalogCache.storeListChanged(store.getId());
+        catalogCache.ownerStoresChanged(store.getOwner().getEmail());
+        return withStats(StoreResponseDto.fromEntity(store));
+    }
+
+    // Data URIs e URLs /api/images viram hash no ImageStore; outros valores (URL externa) ficam em imageUrl
+    private void applyImage(Store store, String imageUrl) {
+        String hash = imageStore.resolveReference(imageUrl);
+        store.setImageHash(hash);
+        store.setImageUrl(hash == null ? imageUrl : null);
     }
 
     @Transactional
@@ -83,46 +150,53 @@ public class StoreService {
         }
 
         storeRepository.delete(store);
+        storeStats.storeDeleted(store.getId());
+        catalogCache.storeChanged(store.getId());
+        catalogCache.ownerStoresChanged(store.getOwner().getEmail());
     }
 
     public List<StoreResponseDto> findAll() {
-        return storeRepository.findAll().stream()
+        return withStats(storeRepository.findAll().stream()
                 .map(StoreResponseDto::fromEntity)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public StoreResponseDto findById(Long id) {
         Store store = storeRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Loja não encontrada"));
-        return StoreResponseDto.fromEntity(store);
+        return withStats(StoreResponseDto.fromEntity(store));
     }
 
-    @Transactional
+    // A lista vem do cache ownerStores; as estatísticas mudam a cada produto, então entram em cópias a cada leitura
     public List<StoreResponseDto> findMyStores(String userEmail) {
-        User owner = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-
-        List<Store> stores = storeRepository.findByOwner(owner);
-
-        return stores.stream()
-                .map(StoreResponseDto::fromEntity)
-                .collect(Collectors.toList());
+        return withStats(ownerStores.load(userEmail).stream()
+                .map(store -> store.toBuilder().build())
+                .collect(Collectors.toList()));
     }
 
+    // Só as páginas sem busca vão para o cache: as buscas variam demais para se repetirem
     @Transactional
-    public List<StoreResponseDto> findAllPublic() {
-        return storeRepository.findAll().stream()
-                .map(store -> StoreResponseDto.builder()
-                        .id(store.getId())
-                        .name(store.getName())
-                        .address(store.getAddress())
-                        .contact(store.getContact())
-                        .imageUrl(store.getImageUrl())
-                        .description(store.getDescription())
-                        .ownerEmail(null) // não expõe email do dono
-                        .build()
-                )
-                .collect(Collectors.toList());
+    @Cacheable(cacheNames = CatalogCache.PUBLIC_STORES, condition = "#search == null || #search.isBlank()")
+    public CursorPageResponseDto<StoreSummaryDto> findPublicDirectory(String search, String cursor, Integer size) {
+        int pageSize = (size == null) ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        String prefix = (search == null || search.isBlank()) ? "%" : escapeLike(search.trim()) + "%";
+
+        List<StoreSummaryDto> stores;
+        if (cursor == null || cursor.isBlank()) {
+            stores = storeRepository.findDirectory(prefix, limit);
+        } else {
+            StoreCursor position = StoreCursor.decode(cursor);
+            stores = storeRepository.findDirectoryAfter(prefix, position.getName(), position.getLastId(), limit);
+        }
+
+        String nextCursor = null;
+        if (stores.size() > pageSize) {
+            stores = stores.subList(0, pageSize);
+            StoreSummaryDto last = stores.get(pageSize - 1);
+            nextCursor = StoreCursor.of(last.getName(), last.getId()).encode();
+        }
+        return new CursorPageResponseDto<>(new ArrayList<>(stores), nextCursor);
     }
 
     @Transactional
@@ -130,15 +204,31 @@ public class StoreService {
         Store store = storeRepository.findById(id).orElse(null);
         if (store == null) return null;
 
-        return StoreResponseDto.builder()
+        return withStats(StoreResponseDto.builder()
                 .id(store.getId())
                 .name(store.getName())
                 .address(store.getAddress())
                 .contact(store.getContact())
-                .imageUrl(store.getImageUrl())
+                .imageUrl(ImageStore.publicUrl(store.getImageHash(), store.getImageUrl()))
+                .thumbnailUrl(ImageStore.thumbnailUrl(store.getImageHash()))
                 .description(store.getDescription())
                 .ownerEmail(null) 
-                .build();
+                .build());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Uma consulta por listagem (findAllById), não uma por loja
+    private List<StoreResponseDto> withStats(List<StoreResponseDto> stores) {
+        Map<Long, StoreStats> stats = storeStats.statsFor(stores.stream().map(StoreResponseDto::getId).toList());
+        stores.forEach(store -> store.withStats(stats.get(store.getId())));
+        return stores;
+    }
+
+    private StoreResponseDto withStats(StoreResponseDto store) {
+        return withStats(List.of(store)).get(0);
     }
 
 
@@ -0,0 +1,133 @@
+package com.example.demo.auth.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.StoreStats;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.StoreStatsRepository;
+import com.example.demo.auth.repository.StoreStatsRepository.StoreAggregate;
+
+/**
+ * Mantém store_stats (quantidade de produtos, preço médio, avaliação média e estoque total por loja).
+ * As escritas de produto chamam estes métodos na própria transação, depois de gravar o produto; cada um é um
+ * UPDATE de incremento, sem ler a linha. Votos e reservas de estoque não passam por aqui a cada requisição
+ * (a linha da loja viraria um ponto de disputa): as avaliações só chegam pelo flush agrupado de
+ * RatingIngestionPipeline (um UPDATE por produto a cada rodada), e no modo síncrono a avaliação média e o
+ * estoque total são corrigidos pela reconciliação.
+ * A reconciliação roda no start e a cada stores.stats.reconcile-ms: por loja, trava a linha, recalcula a partir
+ * de product e grava o valor exato, corrigindo qualquer desvio (inclusive lojas anteriores à tabela).
+ * @param statsFor Estatísticas das lojas informadas (lojas sem linha ficam de fora).
+ * @param reconcile Recalcula todas as lojas.
+ */
+@Service
+public class StoreStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreStatsService.class);
+
+    private final StoreStatsRepository statsRepository;
+    private final StoreRepository storeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public StoreStatsService(StoreStatsRepository statsRepository, StoreRepository storeRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.storeRepository = storeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<Long, StoreStats> statsFor(Collection<Long> storeIds) {
+        return statsRepository.findAllById(storeIds).stream()
+                .collect(Collectors.toMap(StoreStats::getStoreId, Function.identity()));
+    }
+
+    void storeCreated(Long storeId) {
+        statsRepository.save(StoreStats.builder().storeId(storeId).build());
+    }
+
+    void storeDeleted(Long storeId) {
+        statsRepository.findById(storeId).ifPresent(statsRepository::delete);
+    }
+
+    void productAdded(Long storeId, Double price, Integer quantity) {
+        productsAdded(storeId, 1, value(price), value(quantity));
+    }
+
+    void productsAdded(Long storeId, long count, double priceSum, long stockSum) {
+        statsRepository.addProducts(storeId, count, priceSum, stockSum);
+    }
+
+    void productChanged(Long storeId, Double oldPrice, Double newPrice, int stockDelta) {
+        double priceDelta = value(newPrice) - value(oldPrice);
+        if (priceDelta != 0 || stockDelta != 0) {
+            statsRepository.addProducts(storeId, 0, priceDelta, stockDelta);
+        }
+    }
+
+    void productRemoved(Long storeId, Double price, Integer quantity, Long ratingSum, Long ratingCount) {
+        statsRepository.addProducts(storeId, -1, -value(price), -value(quantity));
+        if (ratingCount != null && ratingCount != 0) {
+            statsRepository.addRatings(storeId, -ratingSum, -ratingCount);
+        }
+    }
+
+    void ratingsChanged(Long productId, long sumDelta, long countDelta) {
+        if (sumDelta != 0 || countDelta != 0) {
+            statsRepository.addProductRatings(productId, sumDelta, countDelta);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${stores.stats.reconcile-ms:600000}",
+               fixedDelayString = "${stores.stats.reconcile-ms:600000}")
+    public void reconcile() {
+        int corrected = 0;
+        for (Long storeId : storeRepository.findAllIds()) {
+            Boolean drifted = transactionTemplate.execute(status -> reconcileStore(storeId));
+            if (Boolean.TRUE.equals(drifted)) corrected++;
+        }
+        if (corrected > 0) log.info("Estatísticas de {} lojas corrigidas pela reconciliação", corrected);
+    }
+
+    private boolean reconcileStore(Long storeId) {
+        StoreStats stats = statsRepository.lockById(storeId)
+                .orElseGet(() -> StoreStats.builder().storeId(storeId).build());
+        StoreAggregate actual = statsRepository.aggregate(storeId);
+
+        boolean drifted = !Objects.equals(stats.getProductCount(), actual.getProductCount())
+                || Math.abs(stats.getPriceSum() - actual.getPriceSum()) > 0.005
+                || !Objects.equals(stats.getStockSum(), actual.getStockSum())
+                || !Objects.equals(stats.getRatingSum(), actual.getRatingSum())
+                || !Objects.equals(stats.getRatingCount(), actual.getRatingCount());
+
+        stats.setProductCount(actual.getProductCount());
+        stats.setPriceSum(actual.getPriceSum());
+        stats.setStockSum(actual.getStockSum());
+        stats.setRatingSum(actual.getRatingSum());
+        stats.setRatingCount(actual.getRatingCount());
+        stats.setReconciledAt(LocalDateTime.now());
+        statsRepository.save(stats);
+        return drifted;
+    }
+
+    private static double value(Double number) {
+        return number == null ? 0.0 : number;
+    }
+
+    private static long value(Integer number) {
+        return number == null ? 0L : number;
+    }
+}
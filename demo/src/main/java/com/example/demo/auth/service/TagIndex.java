@@ -0,0 +1,135 @@
+package com.example.demo.auth.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Índice invertido em memória tag → ids de produto (RoaringBitmap), para filtros AND/OR por várias tags
+ * sem consultar product_tag. É carregado por completo depois da inicialização e mantido incrementalmente
+ * por ProductTagService e ProductService, sempre após o commit.
+ * Os bitmaps publicados nunca são alterados: cada escrita troca o bitmap da tag por uma cópia modificada,
+ * então as leituras não precisam de lock. Antes da carga (isReady() == false) os chamadores usam o SQL.
+ * As chaves são o nome da tag em minúsculas, como a comparação da collation do MySQL.
+ * @param match Produtos com qualquer uma (OR) ou com todas (AND) as tags informadas.
+ * @param count Quantidade de produtos de uma tag.
+ * @param snapshot Bitmaps atuais de todas as tags (somente leitura).
+ * @param rebuild Recarrega o índice inteiro a partir de product_tag.
+ */
+@Component
+public class TagIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagIndex.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, RoaringBitmap> postings = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public TagIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public RoaringBitmap match(Collection<String> tags, boolean matchAll) {
+        List<RoaringBitmap> bitmaps = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            RoaringBitmap bitmap = postings.get(key(tag));
+            if (bitmap == null) {
+                if (matchAll) return new RoaringBitmap();
+                continue;
+            }
+            bitmaps.add(bitmap);
+        }
+        if (bitmaps.isEmpty()) return new RoaringBitmap();
+        return matchAll ? FastAggregation.and(bitmaps.iterator()) : FastAggregation.or(bitmaps.iterator());
+    }
+
+    public int count(String tag) {
+        RoaringBitmap bitmap = postings.get(key(tag));
+        return bitmap == null ? 0 : bitmap.getCardinality();
+    }
+
+    public Map<String, RoaringBitmap> snapshot() {
+        return Map.copyOf(postings);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, RoaringBitmap> loaded = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT t.name, pt.product_id FROM product_tag pt JOIN tag t ON t.id = pt.tag_id",
+                rs -> {
+                    loaded.computeIfAbsent(key(rs.getString(1)), k -> new RoaringBitmap())
+                          .add(Math.toIntExact(rs.getLong(2)));
+                });
+        loaded.values().forEach(RoaringBitmap::runOptimize);
+
+        postings.keySet().retainAll(loaded.keySet());
+        postings.putAll(loaded);
+        ready = true;
+        log.info("Índice de tags carregado: {} tags", loaded.size());
+    }
+
+    void added(String tag, Long productId) {
+        AfterCommit.run(() -> update(key(tag), productId, true));
+    }
+
+    // Importação em massa: uma cópia por tag em vez de uma por associação
+    void addedAll(Map<String, List<Long>> productsByTag) {
+        AfterCommit.run(() -> {
+            synchronized (this) {
+                productsByTag.forEach((tag, productIds) -> {
+                    String key = key(tag);
+                    RoaringBitmap current = postings.get(key);
+                    RoaringBitmap next = current == null ? new RoaringBitmap() : current.clone();
+                    productIds.forEach(id -> next.add(Math.toIntExact(id)));
+                    postings.put(key, next);
+                });
+            }
+        });
+    }
+
+    void removed(String tag, Long productId) {
+        AfterCommit.run(() -> update(key(tag), productId, false));
+    }
+
+    void productRemoved(Long productId) {
+        AfterCommit.run(() -> {
+            for (String tag : postings.keySet()) {
+                update(tag, productId, false);
+            }
+        });
+    }
+
+    // Copy-on-write: os leitores continuam com o bitmap antigo até a troca
+    private synchronized void update(String tag, Long productId, boolean add) {
+        RoaringBitmap current = postings.get(tag);
+        int id = Math.toIntExact(productId);
+        if (add == (current != null && current.contains(id))) return;
+
+        RoaringBitmap next = current == null ? new RoaringBitmap() : current.clone();
+        if (add) next.add(id); else next.remove(id);
+
+        if (next.isEmpty()) postings.remove(tag); else postings.put(tag, next);
+    }
+
+    private static String key(String tag) {
+        return tag.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -13,7 +13,9 @@ import com.example.demo.auth.dto.LoginRequestDto;
 import com.example.demo.auth.dto.UserRequestDto;
 import com.example.demo.auth.dto.UserResponseDto;
 import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.security.AuthenticationCache;
 import com.example.demo.shared.security.JwtService;
+import com.example.demo.shared.security.TokenVersionRegistry;
 
 /**
  * Serviço para gerenciar operações relacionadas a usuários.
@@ -34,11 +36,16 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final AuthenticationCache authenticationCache;
+    private final TokenVersionRegistry tokenVersions;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService,
+                       AuthenticationCache authenticationCache, TokenVersionRegistry tokenVersions) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.authenticationCache = authenticationCache;
+        this.tokenVersions = tokenVersions;
     }
 
     @Transactional
@@ -64,7 +71,9 @@ public class UserService {
             throw new IllegalArgumentException("Credenciais inválidas");
         }
 
-        return jwtService.generateToken(user.getEmail());
+        // Id, papel e versão vão no token para a autenticação sem estado (auth.jwt.stateless)
+        return jwtService.generateToken(user.getEmail(), user.getId(), user.getRole().name(),
+                tokenVersions.current(user.getId()));
     }
 
     @Transactional
@@ -81,6 +90,12 @@ public class UserService {
         }
 
         userRepository.save(user);
+        // Depois do commit: antes dele, uma requisição ainda leria o usuário antigo e o recolocaria no cache
+        // A versão nova também só vale depois do commit: um login nesse meio tempo leria o papel antigo
+        AfterCommit.run(() -> {
+            authenticationCache.invalidateUser(email);
+            tokenVersions.revoke(user.getId());
+        });
         return UserResponseDto.fromEntity(user);
     }
 
@@ -88,6 +103,7 @@ public class UserService {
     public UserResponseDto updateUserByAdmin(Long id, UserRequestDto dto) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+        String previousEmail = user.getEmail();
 
         if (dto.getName() != null) user.setName(dto.getName());
         if (dto.getLastName() != null) user.setLastName(dto.getLastName());
@@ -99,6 +115,10 @@ public class UserService {
         }
 
         userRepository.save(user);
+        AfterCommit.run(() -> {
+            authenticationCache.invalidateUser(previousEmail);
+            tokenVersions.revoke(user.getId());
+        });
         return UserResponseDto.fromEntity(user);
     }
 
@@ -116,10 +136,11 @@ public class UserService {
     }
 
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new IllegalArgumentException("Usuário não encontrado");
-        }
-        userRepository.deleteById(id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+        userRepository.delete(user);
+        authenticationCache.invalidateUser(user.getEmail());
+        tokenVersions.revoke(user.getId());
     }
 
     public UserResponseDto findByEmail(String email) {
@@ -0,0 +1,44 @@
+package com.example.demo.shared.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.auth.service.CatalogCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache (Caffeine) das leituras públicas do catálogo.
+ * Cada cache é limitado por catalog.cache.max-size entradas e expira após catalog.cache.ttl-seconds,
+ * o que também limita a defasagem da média de avaliação, que não invalida o cache a cada voto.
+ * As estatísticas (recordStats) são publicadas pelo actuator como cache.gets, cache.puts e cache.evictions.
+ * O proxy transacional adia put/evict para depois do commit, então uma leitura concorrente não
+ * recoloca no cache um dado que ainda não foi confirmado.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${catalog.cache.max-size:1000}") long maxSize,
+                                     @Value("${catalog.cache.ttl-seconds:60}") long ttlSeconds) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        // Caches declarados no start para que as métricas sejam registradas já na inicialização
+        caffeine.setCacheNames(List.of(
+                CatalogCache.PRODUCTS, CatalogCache.STORE_PRODUCTS, CatalogCache.PUBLIC_STORES, CatalogCache.TAGS,
+                CatalogCache.OWNER_STORES));
+        caffeine.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.shared.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate a função fulltext_match(nome, descrição, consulta),
+ * traduzida para MATCH (...) AGAINST (... IN BOOLEAN MODE) do MySQL.
+ * Retorna a relevância do registro: 0 quando não há correspondência.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String FULLTEXT_MATCH = "fulltext_match";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                FULLTEXT_MATCH,
+                "match(?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
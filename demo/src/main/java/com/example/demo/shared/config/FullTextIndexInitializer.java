@@ -0,0 +1,55 @@
+package com.example.demo.shared.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria o índice FULLTEXT da busca de produtos, que o ddl-auto do Hibernate não sabe gerar.
+ * Só é executado no MySQL; o InnoDB mantém o índice atualizado na mesma transação
+ * de cada INSERT/UPDATE/DELETE em product.
+ */
+@Component
+public class FullTextIndexInitializer implements ApplicationRunner {
+
+    static final String INDEX_NAME = "ft_product_name_description";
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndexInitializer.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public FullTextIndexInitializer(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!isMySql()) return;
+
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics " +
+                "WHERE table_schema = DATABASE() AND table_name = 'product' AND index_name = ?",
+                Integer.class, INDEX_NAME);
+
+        if (existing != null && existing == 0) {
+            log.info("Criando índice FULLTEXT {} em product(name, description)", INDEX_NAME);
+            jdbcTemplate.execute("ALTER TABLE product ADD FULLTEXT INDEX " + INDEX_NAME + " (name, description)");
+        }
+    }
+
+    private boolean isMySql() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
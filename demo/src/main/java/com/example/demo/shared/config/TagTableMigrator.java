@@ -0,0 +1,92 @@
+package com.example.demo.shared.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.auth.domain.Tag;
+
+/**
+ * Migra a tabela antiga product_tags (nome da tag repetido em cada linha) para o dicionário
+ * tag + product_tag criado pelo ddl-auto. Os INSERTs ignoram o que já foi copiado, então uma
+ * execução interrompida é retomada no próximo start; ao final a tabela antiga é removida
+ * (a chave estrangeira dela para product impediria excluir produtos).
+ * Os nomes antigos (VARCHAR(255)) são cortados em Tag.NAME_LENGTH dos dois lados, no INSERT e no JOIN,
+ * e a tabela só é removida se todas as associações antigas estiverem em product_tag; se faltar alguma,
+ * ela fica para conferência e o próximo start tenta de novo.
+ */
+@Component
+public class TagTableMigrator implements ApplicationRunner {
+
+    static final String LEGACY_TABLE = "product_tags";
+
+    private static final Logger log = LoggerFactory.getLogger(TagTableMigrator.class);
+    private static final String LEGACY_NAME = "LEFT(TRIM(l.tag_name), " + Tag.NAME_LENGTH + ")";
+    private static final String LEGACY_ROWS = " FROM " + LEGACY_TABLE + " l " +
+            "WHERE l.product_id IS NOT NULL AND l.tag_name IS NOT NULL AND TRIM(l.tag_name) <> ''";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TagTableMigrator(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!legacyTableExists()) return;
+
+        int tags = jdbcTemplate.update(
+                "INSERT INTO tag (name) " +
+                "SELECT DISTINCT " + LEGACY_NAME + LEGACY_ROWS + " " +
+                "AND NOT EXISTS (SELECT 1 FROM tag t WHERE t.name = " + LEGACY_NAME + ")");
+
+        int links = jdbcTemplate.update(
+                "INSERT INTO product_tag (product_id, tag_id) " +
+                "SELECT DISTINCT l.product_id, t.id FROM " + LEGACY_TABLE + " l " +
+                "JOIN tag t ON t.name = " + LEGACY_NAME + " " +
+                "WHERE l.product_id IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM product_tag pt WHERE pt.product_id = l.product_id AND pt.tag_id = t.id)");
+
+        long legacy = count("SELECT DISTINCT l.product_id, " + LEGACY_NAME + " AS name" + LEGACY_ROWS);
+        long migrated = count("SELECT DISTINCT l.product_id, " + LEGACY_NAME + " AS name" + LEGACY_ROWS + " " +
+                "AND EXISTS (SELECT 1 FROM product_tag pt JOIN tag t ON t.id = pt.tag_id " +
+                "WHERE pt.product_id = l.product_id AND t.name = " + LEGACY_NAME + ")");
+        if (migrated != legacy) {
+            log.error("{} mantida: {} de {} associações encontradas em product_tag", LEGACY_TABLE, migrated, legacy);
+            return;
+        }
+
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        log.info("Tags migradas de {}: {} nomes no dicionário, {} associações", LEGACY_TABLE, tags, links);
+    }
+
+    private long count(String distinctRows) {
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + distinctRows + ") rows_", Long.class);
+        return rows == null ? 0 : rows;
+    }
+
+    private boolean legacyTableExists() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // o MySQL guarda o nome como foi criado; o H2, em maiúsculas
+            for (String name : new String[] {LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[] {"TABLE"})) {
+                    if (tables.next()) return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.shared.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção personalizada para operações que conflitam com o estado atual do recurso (HTTP 409),
+ * como estoque insuficiente ou uma reserva que já foi confirmada, liberada ou expirou.
+ * @param message Mensagem de erro detalhada.
+ * @returns ConflictException com a mensagem fornecida.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +16,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * Ele captura exceções específicas e genéricas, retornando respostas HTTP apropriadas.
  * @param handleNotFoundException Método para tratar NotFoundException.(404)
  * @param handleBadRequestException Método para tratar BadRequestException.(400)
+ * @param handleConflictException Método para tratar ConflictException.(409)
+ * @param handleOptimisticLockingFailure Método para tratar edições concorrentes detectadas pela versão da entidade.(409)
  * @param handleValidationException Método para tratar erros de validação de argumentos.(400)
  * @param handleGenericException Método para tratar exceções genéricas.(500)
  */
@@ -31,6 +34,17 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(ConflictException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Conflict", ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return buildResponse(HttpStatus.CONFLICT, "Conflict",
+                "O registro foi alterado por outra pessoa; recarregue e tente novamente.");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationException(MethodArgumentNotValidException ex) {
 
@@ -0,0 +1,105 @@
+package com.example.demo.shared.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Cache de autenticação por token JWT.
+ * Guarda, pelo hash SHA-256 do token, o UserDetails já resolvido e a expiração do token, para que as
+ * requisições seguintes com o mesmo token não precisem validar a assinatura nem consultar a tabela users.
+ * Cada entrada expira junto com o token ou após auth.cache.max-ttl-seconds, o que vier antes: o teto limita
+ * por quanto tempo um UserDetails lido antes de uma alteração do usuário (e gravado depois da invalidação)
+ * continua valendo. O tamanho é limitado por auth.cache.max-size.
+ * @param invalidateUser Remove as entradas de um usuário (chamado quando ele é alterado ou excluído).
+ */
+@Component
+public class AuthenticationCache {
+
+    private final Cache<String, CachedAuthentication> cache;
+
+    @Autowired
+    public AuthenticationCache(@Value("${auth.cache.max-size:10000}") long maxSize,
+                               @Value("${auth.cache.max-ttl-seconds:300}") long maxTtlSeconds) {
+        this(maxSize, Duration.ofSeconds(maxTtlSeconds), Ticker.systemTicker());
+    }
+
+    AuthenticationCache(long maxSize, Duration maxTtl, Ticker ticker) {
+        long maxTtlNanos = maxTtl.toNanos();
+        // expireAfterWrite não combina com uma Expiry variável no Caffeine; o teto entra no próprio cálculo
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        return Math.min(value.remainingNanos(), maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime,
+                                                  long currentDuration) {
+                        return Math.min(value.remainingNanos(), maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public UserDetails get(String token) {
+        String key = hash(token);
+        CachedAuthentication cached = cache.getIfPresent(key);
+        if (cached == null) return null;
+
+        if (cached.remainingNanos() <= 0) {
+            cache.invalidate(key);
+            return null;
+        }
+        return cached.userDetails();
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiration) {
+        if (expiration == null) return;
+        cache.put(hash(token), new CachedAuthentication(userDetails, expiration.toInstant()));
+    }
+
+    public void invalidateUser(String username) {
+        if (username == null) return;
+        cache.asMap().values().removeIf(cached -> username.equals(cached.userDetails().getUsername()));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record CachedAuthentication(UserDetails userDetails, Instant expiresAt) {
+        long remainingNanos() {
+            return Math.max(0, Instant.now().until(expiresAt, ChronoUnit.NANOS));
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.demo.shared.security;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,6 +20,8 @@ import jakarta.servlet.http.HttpServletResponse;
 /**
  * Filtro de autenticação JWT que intercepta requisições HTTP para validar tokens JWT.
  * Extrai o token do cabeçalho Authorization, valida-o e, se válido, autentica o usuário no contexto de segurança do Spring.
+ * Com auth.jwt.stateless=true, tokens que trazem id, papel e uma versão vigente são autenticados só pelas claims,
+ * sem consultar a tabela users; os demais seguem pelo UserDetailsService.
  * @param doFilterInternal Método que realiza a filtragem e validação do token JWT.
  * @param JwtAuthenticationFilter Construtor que injeta as dependências necessárias: JwtService e UserDetailsService.
  */
@@ -26,12 +30,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AuthenticationCache authenticationCache;
+    private final TokenVersionRegistry tokenVersions;
+    private final boolean stateless;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            @Qualifier("authUserDetailsService") UserDetailsService userDetailsService) {
+            @Qualifier("authUserDetailsService") UserDetailsService userDetailsService,
+            AuthenticationCache authenticationCache,
+            TokenVersionRegistry tokenVersions,
+            @Value("${auth.jwt.stateless:false}") boolean stateless) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.authenticationCache = authenticationCache;
+        this.tokenVersions = tokenVersions;
+        this.stateless = stateless;
     }
 
     @Override
@@ -54,31 +67,64 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String email;
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Token já validado antes: autentica sem verificar a assinatura nem consultar o banco
+        UserDetails cached = authenticationCache.get(jwt);
+        if (cached != null) {
+            authenticate(cached);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Um único parse verifica assinatura e expiração e devolve as claims
+        VerifiedToken token;
         try {
-            email = jwtService.extractUsername(jwt);
-        } catch (JwtException e) {
+            token = jwtService.validate(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
             logger.warn("JWT inválido recebido: " + e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (email == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+        if (token.getSubject() == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        var userDetails = userDetailsService.loadUserByUsername(email);
+        if (stateless && token.isStateless() && tokenVersions.isCurrent(token.getUserId(), token.getTokenVersion())) {
+            authenticate(fromClaims(token));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        var userDetails = userDetailsService.loadUserByUsername(token.getSubject());
 
-        if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-            var authToken = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
-                    userDetails,
-                    null,
-                    userDetails.getAuthorities()
-            );
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+        if (token.getSubject().equals(userDetails.getUsername())) {
+            authenticationCache.put(jwt, userDetails, token.getExpiration());
+            authenticate(userDetails);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static UserDetails fromClaims(VerifiedToken token) {
+        return org.springframework.security.core.userdetails.User
+                .withUsername(token.getSubject())
+                .password("")
+                .roles(token.getRoles().toArray(String[]::new))
+                .build();
+    }
+
+    private void authenticate(UserDetails userDetails) {
+        var authToken = new org.springframework.security.authentication.UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
 }
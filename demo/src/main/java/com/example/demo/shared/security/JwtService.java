@@ -4,6 +4,7 @@ import java.security.Key;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -14,6 +15,8 @@ import org.springframework.stereotype.Service;
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -25,9 +28,11 @@ import io.jsonwebtoken.security.SignatureException;
  * Serviço para geração e validação de tokens JWT.
  * Inclui métodos para extrair informações do token, gerar novos tokens e validar tokens existentes.
  * @param extractUsername Método para extrair o nome de usuário (email) do token JWT.
- * @param generateToken Método para gerar um token JWT para um dado nome de usuário.
+ * @param generateToken Método para gerar um token JWT para um dado nome de usuário; a variante com id, papel e
+ * versão inclui essas claims para a autenticação sem estado.
  * @param isTokenValid Método para validar se um token JWT é válido para um dado nome de usuário.
  * @param validateToken Método para validar a integridade e validade do token JWT.
+ * @param validate Método que verifica o token com um único parse e devolve suas claims (VerifiedToken).
  * @param JwtService Construtor que inicializa a chave de assinatura e o tempo de expiração do token a partir de variáveis de ambiente.
  */
 @Service
@@ -35,6 +40,8 @@ public class JwtService {
 
     private final Key signingKey;
     private final long EXPIRATION_TIME; 
+    // JwtParser é imutável e thread-safe: montado uma vez e reutilizado em todas as validações
+    private final JwtParser parser;
 
     public JwtService() {
         Dotenv dotenv = Dotenv.configure()
@@ -56,6 +63,13 @@ public class JwtService {
 
         String expTime = dotenv.get("EXPIRATION_TIME");
         this.EXPIRATION_TIME = (expTime != null) ? Long.parseLong(expTime) : 86400000; 
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
+
+    JwtService(Key signingKey, long expirationTime) {
+        this.signingKey = signingKey;
+        this.EXPIRATION_TIME = expirationTime;
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     private Key getSignInKey() {
@@ -72,11 +86,15 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifica assinatura e expiração com um único parse.
+     * @throws JwtException se o token for inválido, adulterado ou expirado.
+     */
+    public VerifiedToken validate(String token) {
+        return VerifiedToken.fromClaims(extractAllClaims(token));
     }
 
     public String generateToken(String username) {
@@ -84,6 +102,14 @@ public class JwtService {
         return createToken(claims, username);
     }
 
+    public String generateToken(String username, Long userId, String role, long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(VerifiedToken.USER_ID_CLAIM, userId);
+        claims.put(VerifiedToken.ROLES_CLAIM, List.of(role));
+        claims.put(VerifiedToken.TOKEN_VERSION_CLAIM, tokenVersion);
+        return createToken(claims, username);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
@@ -96,10 +122,7 @@ public class JwtService {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (ExpiredJwtException | MalformedJwtException | UnsupportedJwtException | SignatureException | IllegalArgumentException e) {
             return false;
@@ -107,15 +130,15 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username)) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        try {
+            VerifiedToken verified = validate(token);
+            return verified.getSubject().equals(username) && verified.getExpiration().after(new Date());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
-    private Date extractExpiration(String token) {
+    public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration);
     }
 }
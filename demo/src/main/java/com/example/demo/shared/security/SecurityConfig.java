@@ -61,8 +61,12 @@ public class SecurityConfig {
             // Produtos CRUD
             .requestMatchers(HttpMethod.POST, "/api/products/**").authenticated()
             .requestMatchers(HttpMethod.PUT, "/api/products/**").authenticated()
+            .requestMatchers(HttpMethod.PATCH, "/api/products/**").authenticated()
             .requestMatchers(HttpMethod.DELETE, "/api/products/**").authenticated()
 
+            // Imagens (endereçadas por hash, públicas)
+            .requestMatchers(HttpMethod.GET, "/api/images/**").permitAll()
+
             // Comentários
             .requestMatchers(HttpMethod.GET, "/api/comments/product/**").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/comments/product/**").hasAnyRole("USER", "ADMIN")
@@ -76,6 +80,10 @@ public class SecurityConfig {
             .requestMatchers("/api/store/my").hasAnyRole("USER", "ADMIN")
             .requestMatchers("/api/store/**").hasAnyRole("USER", "ADMIN")
 
+            // Métricas e saúde da aplicação
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
+
             // Tags de produtos
             .requestMatchers(HttpMethod.GET, "/api/tags/product/**").permitAll() // consultar tags de um produto
             .requestMatchers(HttpMethod.POST, "/api/tags/product/**").hasAnyRole("USER", "ADMIN") // adicionar tags
@@ -108,7 +116,7 @@ public class SecurityConfig {
         config.setAllowCredentials(true);
         config.setAllowedOrigins(List.of("http://localhost:3000"));
         config.setAllowedHeaders(List.of("Origin", "Content-Type", "Accept", "Authorization"));
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -0,0 +1,44 @@
+package com.example.demo.shared.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Versão dos tokens de cada usuário, mantida em memória, usada para revogar tokens sem estado.
+ * Todo usuário começa na versão de boot da instância (o instante da inicialização); ao alterar ou
+ * excluir um usuário, revoke() atribui a ele uma versão nova e os tokens emitidos antes deixam de ser aceitos
+ * apenas pelas claims. Como a versão de boot muda a cada reinício, tokens de uma execução anterior
+ * (ou de outra instância) também não casam e passam pela consulta ao banco.
+ * @param current Versão vigente dos tokens de um usuário.
+ * @param isCurrent Indica se a versão presente no token ainda é a vigente.
+ * @param revoke Invalida os tokens sem estado já emitidos para o usuário.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final long bootVersion;
+    private final AtomicLong sequence;
+    // Só guarda usuários revogados desde o boot; os demais estão na versão de boot
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry() {
+        this.bootVersion = System.currentTimeMillis();
+        this.sequence = new AtomicLong(bootVersion);
+    }
+
+    public long current(Long userId) {
+        return versions.getOrDefault(userId, bootVersion);
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        return userId != null && current(userId) == tokenVersion;
+    }
+
+    public void revoke(Long userId) {
+        if (userId == null) return;
+        versions.put(userId, sequence.incrementAndGet());
+    }
+}
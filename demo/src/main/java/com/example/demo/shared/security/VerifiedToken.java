@@ -0,0 +1,64 @@
+package com.example.demo.shared.security;
+
+import java.util.Date;
+import java.util.List;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Visão imutável das claims de um token JWT cuja assinatura e expiração já foram verificadas.
+ * @param subject Email do usuário dono do token.
+ * @param expiration Data de expiração do token.
+ * @param roles Papéis presentes no token (vazio para tokens sem a claim "roles").
+ * @param userId Id do usuário (claim "uid"), presente apenas em tokens sem estado.
+ * @param tokenVersion Versão do token (claim "tv"), comparada com o TokenVersionRegistry.
+ */
+public final class VerifiedToken {
+
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "tv";
+
+    private final String subject;
+    private final Date expiration;
+    private final List<String> roles;
+    private final Long userId;
+    private final Long tokenVersion;
+
+    private VerifiedToken(String subject, Date expiration, List<String> roles, Long userId, Long tokenVersion) {
+        this.subject = subject;
+        this.expiration = expiration;
+        this.roles = roles;
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    static VerifiedToken fromClaims(Claims claims) {
+        List<String> roles = List.of();
+        Object rawRoles = claims.get(ROLES_CLAIM);
+        if (rawRoles instanceof List<?> list) {
+            roles = list.stream().map(String::valueOf).toList();
+        }
+        Date expiration = claims.getExpiration() == null ? null : new Date(claims.getExpiration().getTime());
+        return new VerifiedToken(claims.getSubject(), expiration, roles,
+                asLong(claims.get(USER_ID_CLAIM)), asLong(claims.get(TOKEN_VERSION_CLAIM)));
+    }
+
+    // O parser JSON devolve Integer ou Long conforme a magnitude do número
+    private static Long asLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Indica se o token traz as claims necessárias para autenticar sem consultar o banco.
+     */
+    public boolean isStateless() {
+        return subject != null && userId != null && tokenVersion != null && !roles.isEmpty();
+    }
+
+    public String getSubject() { return subject; }
+    public Date getExpiration() { return expiration == null ? null : new Date(expiration.getTime()); }
+    public List<String> getRoles() { return roles; }
+    public Long getUserId() { return userId; }
+    public Long getTokenVersion() { return tokenVersion; }
+}
@@ -0,0 +1,306 @@
+package com.example.demo.shared.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.exception.NotFoundException;
+
+/**
+ * Armazenamento de imagens endereçado por conteúdo em disco local.
+ * Cada arquivo é gravado sob o SHA-256 dos seus bytes (images.storage.dir/ab/cd/abcd...), então imagens
+ * iguais são guardadas uma única vez e um hash nunca muda de conteúdo, o que permite cache HTTP permanente.
+ * As entidades guardam só o hash; a URL pública é /api/images/{hash}.
+ * @param store Grava os bytes lidos de um InputStream e devolve o hash.
+ * @param storeDataUri Decodifica um data URI em base64 lido de um Reader, sem materializar o texto inteiro.
+ * @param resolveReference Converte um data URI (base64) ou uma URL /api/images/{hash} no hash correspondente.
+ * @param locate Caminho do arquivo de um hash, ou NotFoundException se não existir.
+ * @param transferTo Envia o arquivo para um canal com FileChannel.transferTo (sem cópia em espaço de usuário quando possível).
+ * @param publicUrl URL exposta nos DTOs: a do hash, ou o valor legado de imageUrl.
+ * @param thumbnailUrl URL da miniatura padrão do hash (null para imagens legadas).
+ */
+@Component
+public class ImageStore {
+
+    public static final String URL_PREFIX = "/api/images/";
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final String DATA_URI_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64";
+    // Cabeçalho "data:<mime>;base64," nunca chega perto disso; evita ler o payload procurando a vírgula
+    private static final int MAX_DATA_URI_HEADER = 256;
+
+    private final Path root;
+    private final long maxBytes;
+
+    public ImageStore(@Value("${images.storage.dir:data/images}") String root,
+                      @Value("${images.max-bytes:10485760}") long maxBytes) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+    }
+
+    public String store(InputStream in) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(root);
+            tmp = Files.createTempFile(root, ".upload-", ".tmp");
+
+            MessageDigest digest = sha256();
+            byte[] header = new byte[ImageType.HEADER_LENGTH];
+            int headerLength = 0;
+            long size = 0;
+
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (headerLength < header.length) {
+                        int copy = Math.min(read, header.length - headerLength);
+                        System.arraycopy(buffer, 0, header, headerLength, copy);
+                        headerLength += copy;
+                    }
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new BadRequestException("Imagem excede o tamanho máximo de " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            if (ImageType.detect(header, headerLength) == null) {
+                throw new BadRequestException("Formato de imagem não suportado");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                // rename atômico: leitores nunca veem um arquivo pela metade
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar imagem", e);
+        } finally {
+            deleteQuietly(tmp);
+        }
+    }
+
+    /**
+     * Devolve o hash de uma imagem referenciada por data URI (gravando-a) ou por URL /api/images/{hash}.
+     * Para qualquer outro valor (URL externa, vazio) devolve null e o valor continua em imageUrl.
+     */
+    public String resolveReference(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) return null;
+
+        if (imageUrl.startsWith(URL_PREFIX)) {
+            String hash = imageUrl.substring(URL_PREFIX.length());
+            return isValidHash(hash) ? hash : null;
+        }
+
+        if (imageUrl.startsWith(DATA_URI_PREFIX)) {
+            try {
+                return storeDataUri(new StringReader(imageUrl));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler a imagem enviada", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lê o cabeçalho do data URI e decodifica o base64 em fluxo, direto para o arquivo temporário.
+     * @throws BadRequestException se o valor não for um data URI em base64 de uma imagem suportada
+     *         (inclusive base64 truncado); falhas de leitura do Reader continuam como IOException.
+     */
+    public String storeDataUri(Reader reader) throws IOException {
+        StringBuilder header = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != ',') {
+            if (header.length() >= MAX_DATA_URI_HEADER) {
+                throw new BadRequestException("Cabeçalho de data URI inválido");
+            }
+            header.append((char) c);
+        }
+        if (c == -1 || !header.toString().startsWith(DATA_URI_PREFIX) || !header.toString().endsWith(BASE64_MARKER)) {
+            throw new BadRequestException("Imagem em data URI deve estar em base64");
+        }
+        // O decoder MIME ignora quebras de linha e outros caracteres fora do alfabeto base64
+        return store(new Base64InputStream(reader));
+    }
+
+    public Path locate(String hash) {
+        if (!isValidHash(hash)) throw new NotFoundException("Imagem não encontrada");
+        Path file = pathOf(hash);
+        if (!Files.isRegularFile(file)) throw new NotFoundException("Imagem não encontrada");
+        return file;
+    }
+
+    public ImageType typeOf(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] header = in.readNBytes(ImageType.HEADER_LENGTH);
+            return ImageType.detect(header, header.length);
+        }
+    }
+
+    /**
+     * Tipo pelo cabeçalho de um arquivo já aberto (leitura posicional, não move o canal).
+     */
+    public ImageType typeOf(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ImageType.HEADER_LENGTH);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // lê até completar o cabeçalho ou chegar ao fim do arquivo
+        }
+        return ImageType.detect(header.array(), header.position());
+    }
+
+    public void transferTo(Path file, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transferTo(channel, target);
+        } catch (NoSuchFileException e) {
+            throw new NotFoundException("Imagem não encontrada");
+        }
+    }
+
+    public void transferTo(FileChannel channel, WritableByteChannel target) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        while (position < size) {
+            position += channel.transferTo(position, size - position, target);
+        }
+    }
+
+    public static String publicUrl(String hash, String legacyUrl) {
+        return hash != null ? URL_PREFIX + hash : legacyUrl;
+    }
+
+    public static String thumbnailUrl(String hash) {
+        return hash != null ? URL_PREFIX + hash + "/thumbnail" : null;
+    }
+
+    public static boolean isValidHash(String hash) {
+        return hash != null && HASH.matcher(hash).matches();
+    }
+
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Decodifica o base64 em fluxo. Um erro do decoder (base64 truncado) vira BadRequestException, como
+     * os demais conteúdos inválidos; um erro ao ler o Reader segue como IOException.
+     */
+    private static final class Base64InputStream extends FilterInputStream {
+
+        Base64InputStream(Reader reader) {
+            super(Base64.getMimeDecoder().wrap(new AsciiInputStream(reader)));
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (SourceReadException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new BadRequestException("Imagem em base64 inválida: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (SourceReadException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new BadRequestException("Imagem em base64 inválida: " + e.getMessage());
+            }
+        }
+    }
+
+    private static final class SourceReadException extends IOException {
+        SourceReadException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Expõe um Reader de texto ASCII (base64) como InputStream, sem copiar o conteúdo todo.
+     */
+    private static final class AsciiInputStream extends InputStream {
+
+        private final Reader reader;
+        private char[] chars = new char[0];
+
+        AsciiInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c;
+            try {
+                c = reader.read();
+            } catch (IOException e) {
+                throw new SourceReadException(e);
+            }
+            return c == -1 ? -1 : (c & 0xFF);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (chars.length < length) chars = new char[length];
+            int read;
+            try {
+                read = reader.read(chars, 0, length);
+            } catch (IOException e) {
+                throw new SourceReadException(e);
+            }
+            for (int i = 0; i < read; i++) {
+                buffer[offset + i] = (byte) chars[i];
+            }
+            return read;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // arquivo temporário órfão não afeta o armazenamento
+        }
+    }
+}
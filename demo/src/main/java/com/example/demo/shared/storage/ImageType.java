@@ -0,0 +1,43 @@
+package com.example.demo.shared.storage;
+
+/**
+ * Formatos de imagem aceitos, reconhecidos pelos primeiros bytes do arquivo (assinatura).
+ * O tipo declarado pelo cliente não é confiável, por isso o conteúdo é sempre inspecionado.
+ * @param detect Identifica o formato a partir do cabeçalho do arquivo, ou null se não for suportado.
+ */
+public enum ImageType {
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    // Bytes necessários para reconhecer qualquer um dos formatos (WEBP usa 12)
+    public static final int HEADER_LENGTH = 12;
+
+    private final String mediaType;
+
+    ImageType(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ImageType detect(byte[] header, int length) {
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) return JPEG;
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) return PNG;
+        if (startsWith(header, length, 'G', 'I', 'F', '8')) return GIF;
+        if (startsWith(header, length, 'R', 'I', 'F', 'F') && length >= 12
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') return WEBP;
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... signature) {
+        if (length < signature.length) return false;
+        for (int i = 0; i < signature.length; i++) {
+            if ((header[i] & 0xFF) != signature[i]) return false;
+        }
+        return true;
+    }
+}
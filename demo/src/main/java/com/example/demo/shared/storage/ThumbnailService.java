@@ -0,0 +1,273 @@
+package com.example.demo.shared.storage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.shared.exception.BadRequestException;
+
+/**
+ * Miniaturas das imagens do ImageStore em larguras fixas, geradas sob demanda com javax.imageio.
+ * O resultado fica em um cache em disco (images.thumbnails.dir) limitado a images.thumbnails.max-bytes,
+ * com descarte LRU: o índice em memória segue a ordem de acesso e, ao reiniciar, é reconstruído pela data
+ * de modificação dos arquivos. Requisições simultâneas da mesma miniatura compartilham uma única renderização.
+ * Formatos que o ImageIO não decodifica (WEBP) são servidos no tamanho original.
+ * As dimensões são lidas do cabeçalho antes de decodificar: acima de MAX_SOURCE_PIXELS a miniatura é recusada,
+ * e abaixo disso a decodificação já pula linhas e colunas (subsampling) até perto do dobro da largura pedida,
+ * então um PNG pequeno com dimensões enormes não aloca a imagem inteira em memória.
+ * @param checkWidth BadRequestException se a largura não for uma de WIDTHS.
+ * @param thumbnail Caminho da miniatura do hash na largura pedida (uma de WIDTHS).
+ * @param open Abre a miniatura para leitura; se o descarte LRU removeu o arquivo antes da abertura, gera de novo.
+ */
+@Component
+public class ThumbnailService {
+
+    public static final List<Integer> WIDTHS = List.of(160, 320, 640);
+
+    // 50 megapixels: acima de qualquer foto comum, bem abaixo do que esgotaria o heap ou a CPU
+    static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private final ImageStore imageStore;
+    private final Path root;
+    private final long maxBytes;
+
+    // Índice LRU (acesso mais antigo primeiro); guardado pelo monitor de this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ThumbnailService(ImageStore imageStore,
+                            @Value("${images.thumbnails.dir:data/thumbnails}") String root,
+                            @Value("${images.thumbnails.max-bytes:268435456}") long maxBytes) {
+        this.imageStore = imageStore;
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        loadIndex();
+    }
+
+    public static void checkWidth(int width) {
+        if (!WIDTHS.contains(width)) {
+            throw new BadRequestException("Largura inválida. Use uma de " + WIDTHS);
+        }
+    }
+
+    public Path thumbnail(String hash, int width) {
+        checkWidth(width);
+        Path source = imageStore.locate(hash);
+        String key = hash + "-w" + width;
+
+        Path cached = lookup(key);
+        if (cached != null) return cached;
+
+        // Single-flight: só quem cria o future renderiza; os demais esperam o mesmo resultado
+        CompletableFuture<Path> flight = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) return join(existing);
+
+        try {
+            Path rendered = lookup(key);
+            if (rendered == null) {
+                rendered = render(source, key, width);
+            }
+            flight.complete(rendered);
+            return rendered;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * O canal aberto continua legível mesmo que o descarte apague o arquivo depois, então a resposta não
+     * depende do arquivo existir quando for enviada.
+     */
+    public FileChannel open(String hash, int width) throws IOException {
+        Path file = thumbnail(hash, width);
+        try {
+            return FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // descartado entre o lookup e a abertura: lookup percebe a falta do arquivo e a miniatura é refeita
+            return FileChannel.open(thumbnail(hash, width), StandardOpenOption.READ);
+        }
+    }
+
+    private Path render(Path source, String key, int width) {
+        try {
+            BufferedImage original = decode(source, width);
+            if (original == null) {
+                return source;
+            }
+
+            BufferedImage scaled = scale(original, Math.min(width, original.getWidth()));
+            boolean alpha = scaled.getColorModel().hasAlpha();
+
+            Files.createDirectories(root);
+            Path tmp = Files.createTempFile(root, ".thumb-", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(tmp)) {
+                    ImageIO.write(scaled, alpha ? "png" : "jpg", out);
+                }
+                Path target = root.resolve(key);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                register(key, Files.size(target));
+                return target;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gerar miniatura", e);
+        }
+    }
+
+    /**
+     * Decodifica só o necessário para a largura pedida; null se o ImageIO não reconhecer o formato.
+     */
+    private static BufferedImage decode(Path source, int width) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long sourceWidth = reader.getWidth(0);
+                long sourceHeight = reader.getHeight(0);
+                if (sourceWidth * sourceHeight > MAX_SOURCE_PIXELS) {
+                    throw new BadRequestException("Imagem grande demais para gerar miniatura ("
+                            + sourceWidth + "x" + sourceHeight + ")");
+                }
+                // Mantém ao menos o dobro da largura final para a redução em etapas de scale()
+                int step = (int) Math.max(1, sourceWidth / (2L * width));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reduz pela metade enquanto possível e termina com uma interpolação bilinear até a largura final,
+     * o que evita o serrilhado de uma única redução grande sem o custo do getScaledInstance.
+     */
+    private static BufferedImage scale(BufferedImage image, int targetWidth) {
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * targetWidth / image.getWidth()));
+
+        BufferedImage current = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = Math.max(targetHeight, h / 2);
+
+            BufferedImage step = new BufferedImage(w, h, type);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = step;
+        } while (w != targetWidth || h != targetHeight);
+
+        return current;
+    }
+
+    private synchronized Path lookup(String key) {
+        if (entries.get(key) == null) return null;
+        Path file = root.resolve(key);
+        if (Files.isRegularFile(file)) return file;
+
+        // Arquivo removido por fora do cache
+        totalBytes -= entries.remove(key);
+        return null;
+    }
+
+    private synchronized void register(String key, long size) {
+        Long previous = entries.put(key, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(root.resolve(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Não foi possível remover a miniatura {}: {}", entry.getKey(), e.getMessage());
+            }
+            totalBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void loadIndex() {
+        if (!Files.isDirectory(root)) return;
+        try (Stream<Path> files = Files.list(root)) {
+            files.filter(file -> !file.getFileName().toString().startsWith("."))
+                 .map(file -> {
+                     try {
+                         return Map.entry(file, Files.readAttributes(file, BasicFileAttributes.class));
+                     } catch (IOException e) {
+                         return null;
+                     }
+                 })
+                 .filter(entry -> entry != null && entry.getValue().isRegularFile())
+                 .sorted(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()))
+                 .forEach(entry -> {
+                     entries.put(entry.getKey().getFileName().toString(), entry.getValue().size());
+                     totalBytes += entry.getValue().size();
+                 });
+            evict();
+        } catch (IOException e) {
+            log.warn("Não foi possível carregar o cache de miniaturas: {}", e.getMessage());
+        }
+    }
+
+    private static Path join(CompletableFuture<Path> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+}
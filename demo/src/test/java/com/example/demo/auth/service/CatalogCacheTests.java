@@ -0,0 +1,148 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.cache.CacheMetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.dto.ProductRequestDto;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.config.CacheConfig;
+import com.example.demo.shared.storage.ImageStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache real (CacheConfig: Caffeine atrás do proxy transacional): criar, editar e excluir um produto
+ * tira do cache a listagem, os produtos da loja e o diretório público, e cada cache publica suas métricas.
+ * Roda sem transação de teste porque o proxy só aplica a invalidação depois do commit.
+ */
+@DataJpaTest
+@Import({CacheConfig.class, ProductService.class, StoreService.class, OwnerStores.class, StoreStatsService.class,
+        ImageStore.class, CatalogCache.class, CatalogVersions.class, TagIndex.class, FacetIndex.class})
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class, CacheMetricsAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogCacheTests {
+
+    private static final String[] CATALOG_READS =
+            {CatalogCache.PRODUCTS, CatalogCache.STORE_PRODUCTS, CatalogCache.PUBLIC_STORES};
+
+    @Autowired private ProductService productService;
+    @Autowired private StoreService storeService;
+    @Autowired private ProductRepository products;
+    @Autowired private StoreRepository stores;
+    @Autowired private UserRepository users;
+    @Autowired private CacheManager cacheManager;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private JdbcTemplate jdbc;
+
+    private Long storeId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+        Store store = stores.save(TestFixtures.store("Loja", users.save(TestFixtures.owner())));
+        storeId = store.getId();
+        productId = products.save(Product.builder()
+                .name("Caneca").price(10.0).quantity(1).createdAt(LocalDateTime.now()).store(store)
+                .build()).getId();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void createEvictsTheCatalogReads() {
+        readCatalog();
+
+        productService.create(storeId, request("Prato", 20.0), TestFixtures.OWNER_EMAIL);
+
+        assertCatalogEvicted();
+    }
+
+    @Test
+    void updateEvictsTheCatalogReads() {
+        readCatalog();
+
+        ProductResponseDto updated =
+                productService.update(productId, request("Caneca grande", 12.0), TestFixtures.OWNER_EMAIL);
+
+        assertCatalogEvicted();
+        assertThat(productService.getByStore(storeId)).singleElement()
+                .satisfies(p -> assertThat(p.getName()).isEqualTo(updated.getName()));
+    }
+
+    @Test
+    void deleteEvictsTheCatalogReads() {
+        readCatalog();
+
+        productService.delete(productId, TestFixtures.OWNER_EMAIL);
+
+        assertCatalogEvicted();
+        assertThat(productService.getByStore(storeId)).isEmpty();
+    }
+
+    @Test
+    void everyCatalogCachePublishesItsMetrics() {
+        for (String name : cacheManager.getCacheNames()) {
+            assertThat(meterRegistry.find("cache.gets").tag("cache", name).meters()).as(name).isNotEmpty();
+        }
+        // o contexto (e as estatísticas) é compartilhado entre os testes: mede só a diferença
+        double hits = storeProductHits();
+        readCatalog();
+        readCatalog();
+        assertThat(storeProductHits() - hits).isEqualTo(1);
+    }
+
+    private double storeProductHits() {
+        return meterRegistry.get("cache.gets").tag("cache", CatalogCache.STORE_PRODUCTS).tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private void readCatalog() {
+        productService.listProducts(null, null, null, false, false, null, null);
+        productService.getByStore(storeId);
+        storeService.findPublicDirectory(null, null, null);
+        for (String name : CATALOG_READS) {
+            assertThat(nativeCache(name).asMap()).as(name).isNotEmpty();
+        }
+    }
+
+    private void assertCatalogEvicted() {
+        for (String name : CATALOG_READS) {
+            assertThat(nativeCache(name).asMap()).as(name).isEmpty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+        return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) cacheManager.getCache(name).getNativeCache();
+    }
+
+    private static ProductRequestDto request(String name, double price) {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName(name);
+        dto.setPrice(price);
+        dto.setQuantity(1);
+        return dto;
+    }
+}
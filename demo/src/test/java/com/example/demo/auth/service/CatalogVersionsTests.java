@@ -0,0 +1,52 @@
+package com.example.demo.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class CatalogVersionsTests {
+
+    private final CatalogVersions versions = new CatalogVersions(60);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void storeChangeBumpsThatStoreAndTheCatalogOnly() {
+        long catalog = versions.catalog();
+        long other = versions.store(2L);
+
+        versions.storeChanged(1L);
+
+        assertNotEquals(catalog, versions.catalog());
+        assertEquals(versions.catalog(), versions.store(1L));
+        assertEquals(other, versions.store(2L));
+    }
+
+    @Test
+    void versionsOnlyMoveAfterCommit() {
+        long catalog = versions.catalog();
+        TransactionSynchronizationManager.initSynchronization();
+
+        versions.catalogChanged();
+        assertEquals(catalog, versions.catalog());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(catalog, versions.catalog());
+    }
+
+    @Test
+    void etagIsStableForTheSameVersion() {
+        long version = versions.catalog();
+        assertEquals(versions.etag(version), versions.etag(version));
+        assertNotEquals(versions.etag(version), versions.etag(version + 1));
+    }
+}
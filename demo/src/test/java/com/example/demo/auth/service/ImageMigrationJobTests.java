@@ -0,0 +1,118 @@
+package com.example.demo.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.auth.domain.ImageMigrationCheckpoint;
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.repository.ImageMigrationCheckpointRepository;
+import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.storage.ImageStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Migração das imagens base64 em lotes pequenos: linhas válidas passam para o ImageStore,
+ * URLs externas ficam intactas e linhas inválidas (inclusive base64 truncado) são puladas sem travar o checkpoint.
+ * Roda sem transação de teste porque o job lê e grava por conexões próprias.
+ */
+@DataJpaTest(properties = {
+        "images.migration.enabled=true",
+        "images.migration.batch-size=2",
+        "images.migration.initial-delay-ms=3600000"
+})
+@Import({ImageMigrationJob.class, ImageStore.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageMigrationJobTests {
+
+    private static final byte[] PNG_BYTES =
+            {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final String PNG = "data:image/png;base64," + Base64.getMimeEncoder().encodeToString(PNG_BYTES);
+    // valor antigo cortado no meio: sobra um caractere base64 sem par ("dangling byte")
+    private static final String TRUNCATED_PNG = "data:image/png;base64,"
+            + Base64.getEncoder().encodeToString(Arrays.copyOf(PNG_BYTES, 15)) + "A";
+
+    @TempDir
+    static Path imagesDir;
+
+    @DynamicPropertySource
+    static void imageStorage(DynamicPropertyRegistry registry) {
+        registry.add("images.storage.dir", imagesDir::toString);
+    }
+
+    @Autowired private ImageMigrationJob job;
+    @Autowired private ImageMigrationCheckpointRepository checkpoints;
+    @Autowired private UserRepository users;
+    @Autowired private StoreRepository stores;
+    @Autowired private ProductRepository products;
+
+    @Test
+    void migratesInlineImagesInBatchesAndRecordsProgress() {
+        User owner = users.save(TestFixtures.owner());
+        Store legacy = TestFixtures.store("Loja", owner);
+        legacy.setImageUrl(PNG);
+        Store store = stores.save(legacy);
+
+        Long first = saveProduct(store, PNG);
+        Long second = saveProduct(store, PNG);
+        Long external = saveProduct(store, "https://cdn.example.com/p.png");
+        Long invalid = saveProduct(store, "data:text/plain;base64,aGVsbG8=");
+        Long truncated = saveProduct(store, TRUNCATED_PNG);
+        Long last = saveProduct(store, PNG);
+
+        for (int i = 0; i < 10 && !completed("product"); i++) {
+            job.migrateNextBatch();
+        }
+
+        assertTrue(completed("product"));
+        assertTrue(completed("stores"));
+
+        Product migrated = products.findById(first).orElseThrow();
+        assertNotNull(migrated.getImageHash());
+        assertNull(migrated.getImageUrl());
+        assertEquals(migrated.getImageHash(), products.findById(second).orElseThrow().getImageHash());
+        assertEquals(migrated.getImageHash(), products.findById(last).orElseThrow().getImageHash());
+        assertEquals(migrated.getImageHash(), stores.findById(store.getId()).orElseThrow().getImageHash());
+
+        assertEquals("https://cdn.example.com/p.png", products.findById(external).orElseThrow().getImageUrl());
+        assertNull(products.findById(invalid).orElseThrow().getImageHash());
+        assertEquals(TRUNCATED_PNG, products.findById(truncated).orElseThrow().getImageUrl());
+
+        ImageMigrationCheckpoint checkpoint = checkpoints.findById("product").orElseThrow();
+        assertEquals(3, checkpoint.getMigrated());
+        assertEquals(2, checkpoint.getFailed());
+        assertEquals(last, checkpoint.getLastId());
+    }
+
+    private Long saveProduct(Store store, String imageUrl) {
+        return products.save(Product.builder()
+                .name("Produto").price(10.0).quantity(1).imageUrl(imageUrl)
+                .createdAt(LocalDateTime.now()).store(store)
+                .build()).getId();
+    }
+
+    private boolean completed(String table) {
+        return checkpoints.findById(table).map(ImageMigrationCheckpoint::isCompleted).orElse(false);
+    }
+}
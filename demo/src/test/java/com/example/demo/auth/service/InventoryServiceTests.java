@@ -0,0 +1,121 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.ReservationStatus;
+import com.example.demo.auth.dto.ReservationResponseDto;
+import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.exception.ConflictException;
+
+/**
+ * Reservas concorrentes nunca deixam o estoque negativo, e liberação e expiração devolvem as unidades
+ * uma única vez. Roda sem transação de teste para que cada reserva faça o próprio commit.
+ */
+@DataJpaTest
+@Import({InventoryService.class, HotStockPool.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTests {
+
+    @Autowired private InventoryService inventoryService;
+    @Autowired private ProductRepository products;
+    @Autowired private UserRepository users;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+
+        users.save(TestFixtures.user("buyer@test.com"));
+        productId = products.save(Product.builder()
+                .name("Console").price(2500.0).quantity(10).createdAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            attempts.add(pool.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserve(productId, 1, "buyer@test.com");
+                    return true;
+                } catch (ConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int reserved = 0;
+        for (Future<Boolean> attempt : attempts) if (attempt.get()) reserved++;
+        pool.shutdown();
+
+        assertThat(reserved).isEqualTo(10);
+        assertThat(products.findQuantity(productId)).contains(0);
+    }
+
+    @Test
+    void releaseAndExpiryReturnStockOnlyOnce() {
+        ReservationResponseDto released = inventoryService.reserve(productId, 3, "buyer@test.com");
+        assertThat(products.findQuantity(productId)).contains(7);
+
+        assertThat(inventoryService.release(released.getId(), "buyer@test.com").getStatus())
+                .isEqualTo(ReservationStatus.RELEASED);
+        assertThatThrownBy(() -> inventoryService.release(released.getId(), "buyer@test.com"))
+                .isInstanceOf(ConflictException.class);
+        assertThat(products.findQuantity(productId)).contains(10);
+
+        ReservationResponseDto expired = inventoryService.reserve(productId, 4, "buyer@test.com");
+        jdbc.update("UPDATE inventory_reservation SET expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), expired.getId());
+        inventoryService.expireReservations();
+
+        assertThat(products.findQuantity(productId)).contains(10);
+        assertThatThrownBy(() -> inventoryService.commit(expired.getId(), "buyer@test.com"))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void hotPoolLeasesStockInBatchesAndReturnsTheUnused() {
+        HotStockPool hot = new HotStockPool(products, transactionManager, List.of(productId), 4);
+
+        assertThat(hot.take(productId, 1)).isTrue();
+        // um lote de 4 saiu do banco; as próximas 3 unidades vêm da memória
+        assertThat(products.findQuantity(productId)).contains(6);
+        for (int i = 0; i < 3; i++) assertThat(hot.take(productId, 1)).isTrue();
+        assertThat(products.findQuantity(productId)).contains(6);
+
+        assertThat(hot.take(productId, 7)).isFalse();
+        assertThat(hot.take(productId, 5)).isTrue();
+
+        hot.returnUnused();
+        assertThat(products.findQuantity(productId)).contains(1);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.ProductComment;
+import com.example.demo.auth.domain.Role;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.CursorPageResponseDto;
+import com.example.demo.auth.dto.ProductCommentResponseDto;
+import com.example.demo.auth.repository.ProductCommentRepository;
+import com.example.demo.auth.repository.UserRepository;
+
+/**
+ * Conta as consultas da leitura de comentários: o feed paginado resolve os autores no mesmo SELECT
+ * (uma consulta por página), contra um findById de autor por comentário no caminho antigo,
+ * para 10/100/1000 comentários.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(ProductCommentService.class)
+class ProductCommentQueryCountTests {
+
+    private static final Long PRODUCT_ID = 1L;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ProductCommentService commentService;
+
+    @Autowired
+    private ProductCommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void feedRunsOneQueryPerPageInsteadOfOnePerComment(int comments) {
+        for (int i = 0; i < comments; i++) {
+            User author = em.persist(User.builder()
+                    .email("user" + i + "@test.com").password("x").name("Nome" + i).lastName("Sobrenome")
+                    .cpf(String.valueOf(i)).phone("0").role(Role.USER)
+                    .build());
+
+            ProductComment comment = new ProductComment();
+            comment.setProductId(PRODUCT_ID);
+            comment.setUserId(author.getId());
+            comment.setComment("Comentário " + i);
+            em.persist(comment);
+        }
+        em.flush();
+
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+
+        em.clear();
+        statistics.clear();
+        List<ProductCommentResponseDto> before = perCommentLookup();
+        long beforeStatements = statistics.getPrepareStatementCount();
+
+        em.clear();
+        statistics.clear();
+        List<ProductCommentResponseDto> after = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            CursorPageResponseDto<ProductCommentResponseDto> page =
+                    commentService.getCommentsByProduct(PRODUCT_ID, cursor, PAGE_SIZE);
+            after.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        long afterStatements = statistics.getPrepareStatementCount();
+
+        assertThat(after).hasSize(comments);
+        assertThat(after).extracting(ProductCommentResponseDto::getUserName)
+                .containsExactlyInAnyOrderElementsOf(
+                        before.stream().map(ProductCommentResponseDto::getUserName).collect(Collectors.toList()));
+        assertThat(beforeStatements).isEqualTo(comments + 1L);
+        // uma consulta por página do feed, independente do número de comentários em cada página
+        assertThat(afterStatements).isEqualTo(pages);
+    }
+
+    // Caminho antigo do ProductCommentController.getComments
+    private List<ProductCommentResponseDto> perCommentLookup() {
+        return commentRepository.findByProductId(PRODUCT_ID).stream()
+                .map(comment -> {
+                    ProductCommentResponseDto dto = ProductCommentResponseDto.fromEntity(comment);
+                    User user = userRepository.findById(comment.getUserId()).orElseThrow();
+                    dto.setUserName(user.getName() + " " + user.getLastName());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.ProductTag;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.Tag;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exportação em NDJSON: uma linha por produto com as suas tags (as linhas do LEFT JOIN são agrupadas),
+ * com ou sem gzip, e só para o dono da loja ou ADMIN.
+ */
+@DataJpaTest
+@Import({ProductExportService.class, ObjectMapper.class})
+class ProductExportServiceTests {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductExportService exportService;
+    @Autowired private ObjectMapper objectMapper;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(TestFixtures.owner());
+        em.persist(TestFixtures.user("other@test.com"));
+        Store store = em.persist(TestFixtures.store("Loja", owner));
+        storeId = store.getId();
+
+        Tag cozinha = em.persist(Tag.builder().name("cozinha").build());
+        Tag promo = em.persist(Tag.builder().name("promo").build());
+        Product caneca = persistProduct(store, "Caneca", 25.0);
+        persistProduct(store, "Prato", 12.0);
+        Product copo = persistProduct(store, "Copo", 8.5);
+        em.persist(ProductTag.builder().product(caneca).tag(cozinha).build());
+        em.persist(ProductTag.builder().product(caneca).tag(promo).build());
+        em.persist(ProductTag.builder().product(copo).tag(cozinha).build());
+
+        // a exportação lê na mesma transação do teste; limpa o contexto para ela ir ao banco
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void writesOneLinePerProductWithItsTags() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(storeId, TestFixtures.OWNER_EMAIL, false).writeTo(out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        assertThat(ndjson).endsWith("\n");
+
+        List<ProductResponseDto> lines = ndjson.lines()
+                .map(line -> read(line))
+                .toList();
+        assertThat(lines).extracting(ProductResponseDto::getName).containsExactly("Caneca", "Prato", "Copo");
+        assertThat(lines.get(0).getTags()).containsExactlyInAnyOrder("cozinha", "promo");
+        assertThat(lines.get(1).getTags()).isEmpty();
+        assertThat(lines.get(2).getStoreName()).isEqualTo("Loja");
+    }
+
+    @Test
+    void compressesWithGzipAndRejectsOtherUsers() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(storeId, TestFixtures.OWNER_EMAIL, true).writeTo(out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()).hasSize(3);
+        }
+        assertThatThrownBy(() -> exportService.export(storeId, "other@test.com", false))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    private Product persistProduct(Store store, String name, double price) {
+        return em.persist(Product.builder()
+                .name(name).price(price).quantity(1).createdAt(LocalDateTime.now()).store(store)
+                .build());
+    }
+
+    private ProductResponseDto read(String line) {
+        try {
+            return objectMapper.readValue(line, ProductResponseDto.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductImportErrorDto;
+import com.example.demo.auth.dto.ProductImportReportDto;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.storage.ImageStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Importação em lotes JDBC: linhas inválidas são relatadas com o número da linha e não impedem
+ * a gravação das demais; as tags entram no dicionário e no índice em memória, mesmo quando outra transação
+ * cria o mesmo nome de tag no meio do lote.
+ * Roda sem transação de teste porque cada lote é gravado na própria transação.
+ */
+@DataJpaTest(properties = "products.import.batch-size=2")
+@Import({ProductImportService.class, ImageStore.class, CatalogCache.class, CatalogVersions.class,
+        TagIndex.class, FacetIndex.class, StoreStatsService.class, NoOpCacheManager.class, ObjectMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTests {
+
+    @TempDir
+    static Path imagesDir;
+
+    @DynamicPropertySource
+    static void imageStorage(DynamicPropertyRegistry registry) {
+        registry.add("images.storage.dir", imagesDir::toString);
+    }
+
+    @Autowired private ProductImportService importService;
+    @Autowired private TagIndex tagIndex;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private UserRepository users;
+    @Autowired private StoreRepository stores;
+    @Autowired private ImageStore imageStore;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CatalogCache catalogCache;
+    @Autowired private FacetIndex facetIndex;
+    @Autowired private StoreStatsService storeStats;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+
+        User owner = users.save(TestFixtures.owner());
+        storeId = stores.save(TestFixtures.store("Loja", owner)).getId();
+        tagIndex.rebuild();
+    }
+
+    @Test
+    void importsValidNdjsonRowsAndReportsTheInvalidOnes() throws Exception {
+        String body = """
+                {"name":"Caneca","price":25.0,"quantity":3,"tags":["cozinha","Promo"]}
+                {"name":"Prato","price":
+                {"price":10.0}
+
+                {"name":"Copo","price":8.5,"tags":["cozinha","COZINHA"]}
+                {"name":"Jarra","price":-1}
+                {"name":"Garfo","price":4.0,"tags":["promo"]}
+                """;
+
+        ProductImportReportDto report = run(ProductImportService.Format.NDJSON, body);
+
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(3);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(2L, 3L, 6L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM product", Integer.class)).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tag", Integer.class)).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM product_tag", Integer.class)).isEqualTo(4);
+        assertThat(tagIndex.count("cozinha")).isEqualTo(2);
+        assertThat(tagIndex.count("promo")).isEqualTo(2);
+    }
+
+    @Test
+    void importsCsvWithQuotedFieldsAndPipeSeparatedTags() throws Exception {
+        String body = """
+                name,price,quantity,description,tags
+                "Mesa, madeira",300,1,"Mesa com ""tampo"" grande",móveis|sala
+                Cadeira,abc,2,,móveis
+                Banco,80,,,
+                """;
+
+        ProductImportReportDto report = run(ProductImportService.Format.CSV, body);
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(3L);
+        assertThat(jdbc.queryForList("SELECT name, description FROM product ORDER BY id"))
+                .extracting(row -> row.get("NAME"), row -> row.get("DESCRIPTION"))
+                .containsExactly(tuple("Mesa, madeira", "Mesa com \"tampo\" grande"), tuple("Banco", null));
+        assertThat(tagIndex.count("sala")).isEqualTo(1);
+    }
+
+    @Test
+    void reportsCsvRowsWithExtraColumnsAndNdjsonNullLinesWithoutAbortingTheImport() throws Exception {
+        String csv = """
+                name,price
+                Mesa,300
+                Cadeira,80,sobra
+                Banco,40
+                """;
+        ProductImportReportDto csvReport = run(ProductImportService.Format.CSV, csv);
+        assertThat(csvReport.getImported()).isEqualTo(2);
+        assertThat(csvReport.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(3L);
+
+        String ndjson = """
+                {"name":"Caneca","price":25.0}
+                null
+                {"name":"Prato","price":12.0}
+                """;
+        ProductImportReportDto ndjsonReport = run(ProductImportService.Format.NDJSON, ndjson);
+        assertThat(ndjsonReport.getImported()).isEqualTo(2);
+        assertThat(ndjsonReport.getErrors()).extracting(ProductImportErrorDto::getLine).containsExactly(2L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM product", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void tagCreatedByAnotherTransactionDuringTheBatchIsReused() throws Exception {
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean raced = new AtomicBoolean();
+        // a busca das tags do lote não acha "cozinha"; outra transação grava o nome antes do INSERT da importação
+        JdbcTemplate racing = new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public void query(PreparedStatementCreator psc, RowCallbackHandler rch) throws DataAccessException {
+                super.query(psc, rch);
+                if (raced.compareAndSet(false, true)) {
+                    otherTransaction.executeWithoutResult(status -> jdbc.update("INSERT INTO tag (name) VALUES ('cozinha')"));
+                }
+            }
+        };
+        ProductImportService service = new ProductImportService(users, stores, imageStore, racing,
+                transactionTemplate, objectMapper, catalogCache, tagIndex, facetIndex, storeStats, 2);
+
+        ProductImportReportDto report = service.importProducts(storeId, TestFixtures.OWNER_EMAIL,
+                ProductImportService.Format.NDJSON, new ByteArrayInputStream("""
+                        {"name":"Caneca","price":25.0,"tags":["cozinha"]}
+                        {"name":"Copo","price":8.5,"tags":["cozinha"]}
+                        """.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(raced).isTrue();
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tag", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM product_tag", Integer.class)).isEqualTo(2);
+        assertThat(tagIndex.count("cozinha")).isEqualTo(2);
+    }
+
+    private ProductImportReportDto run(ProductImportService.Format format, String body) throws Exception {
+        return importService.importProducts(storeId, TestFixtures.OWNER_EMAIL, format,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.dto.RatingRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Modo síncrono: criar, trocar e remover um voto aplica o delta (ProductRepository.applyRatingDelta)
+ * na soma, na contagem, nos contadores por estrela e na média, que volta a 0.0 sem votos.
+ */
+@DataJpaTest
+@Import({ProductRatingService.class, RatingIngestionPipeline.class, StoreStatsService.class,
+        SimpleMeterRegistry.class})
+class ProductRatingServiceTests {
+
+    private static final String VOTER_EMAIL = "voter@test.com";
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductRatingService ratingService;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Store store = em.persist(TestFixtures.store("Loja", em.persist(TestFixtures.owner())));
+        em.persist(TestFixtures.user(VOTER_EMAIL));
+        productId = em.persist(Product.builder()
+                .name("Caneca").price(10.0).quantity(1).createdAt(LocalDateTime.now()).store(store)
+                .build()).getId();
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void createChangeAndRemoveKeepTheAggregatesInStep() {
+        ratingService.rateProduct(productId, TestFixtures.OWNER_EMAIL, rating(5));
+        ratingService.rateProduct(productId, VOTER_EMAIL, rating(3));
+        assertAggregates(8, 2, 4.0, 0, 0, 1, 0, 1);
+
+        // troca de voto: sai uma estrela 3, entra uma estrela 1, a contagem não muda
+        ratingService.rateProduct(productId, VOTER_EMAIL, rating(1));
+        assertAggregates(6, 2, 3.0, 1, 0, 0, 0, 1);
+
+        ratingService.deleteUserRating(productId, TestFixtures.OWNER_EMAIL);
+        assertAggregates(1, 1, 1.0, 1, 0, 0, 0, 0);
+
+        ratingService.deleteUserRating(productId, VOTER_EMAIL);
+        assertAggregates(0, 0, 0.0, 0, 0, 0, 0, 0);
+    }
+
+    private void assertAggregates(long sum, long count, double average, long... stars) {
+        em.clear();
+        Product product = em.find(Product.class, productId);
+        assertThat(product.getRatingSum()).isEqualTo(sum);
+        assertThat(product.getRatingCount()).isEqualTo(count);
+        assertThat(product.getAverageRating()).isEqualTo(average);
+        assertThat(new long[] {product.getRating1Count(), product.getRating2Count(), product.getRating3Count(),
+                product.getRating4Count(), product.getRating5Count()}).containsExactly(stars);
+    }
+
+    private static RatingRequest rating(int value) {
+        RatingRequest request = new RatingRequest();
+        request.setRating(value);
+        return request;
+    }
+}
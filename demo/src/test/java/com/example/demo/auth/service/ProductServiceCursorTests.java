@@ -0,0 +1,70 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.dto.ProductPageResponseDto;
+import com.example.demo.auth.dto.ProductSummaryDto;
+import com.example.demo.shared.storage.ImageStore;
+
+/**
+ * Cursor da ordenação por relevância: as páginas seguem até o fim sem repetir nem pular produtos,
+ * inclusive com empates e relevâncias que não cabem nas casas decimais do cursor.
+ * A relevância no H2 vem de H2FullTextFunctionContributor (1 / tamanho do nome).
+ */
+@DataJpaTest
+@Import({ProductService.class, ImageStore.class, CatalogCache.class, CatalogVersions.class,
+        TagIndex.class, FacetIndex.class, StoreStatsService.class, NoOpCacheManager.class})
+class ProductServiceCursorTests {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductService productService;
+
+    private final List<Product> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Store store = em.persist(TestFixtures.store("Loja", em.persist(TestFixtures.owner())));
+        for (String name : List.of("Caneca", "Caneca azul", "Canecas", "Caneca rosa", "Caneca verde", "Canecão",
+                "Caneca lisa")) {
+            saved.add(em.persist(Product.builder()
+                    .name(name).price(10.0).quantity(1).createdAt(LocalDateTime.now()).store(store)
+                    .build()));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void relevancePagesFollowTheCursorWithoutRepeatingOrSkippingProducts() {
+        List<Long> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageResponseDto page = productService.listProducts("caneca", null, null, false, false, cursor, 2);
+            page.getItems().stream().map(ProductSummaryDto::getId).forEach(listed::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // relevância decrescente (nome mais curto primeiro), empates pelo id decrescente
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparingInt((Product p) -> p.getName().length())
+                        .thenComparing(Product::getId, Comparator.reverseOrder()))
+                .map(Product::getId)
+                .toList();
+        assertThat(listed).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.ProductTag;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.Tag;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.FacetCountDto;
+import com.example.demo.auth.dto.ProductPageResponseDto;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.dto.ProductSummaryDto;
+import com.example.demo.shared.storage.ImageStore;
+
+/**
+ * Garante que a listagem de produtos custe um número fixo de consultas,
+ * independente da quantidade de produtos (sem N+1 em loja e tags).
+ * As listagens projetam direto no resumo (um SELECT); o detalhe carrega a entidade com tags.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProductService.class, ImageStore.class, CatalogCache.class, CatalogVersions.class,
+        TagIndex.class, FacetIndex.class, StoreStatsService.class, NoOpCacheManager.class})
+class ProductServiceQueryCountTests {
+
+    private static final int PRODUCTS = 30;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TagIndex tagIndex;
+
+    @Autowired
+    private FacetIndex facetIndex;
+
+    private Statistics statistics;
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(TestFixtures.owner());
+
+        Store store = em.persist(TestFixtures.store("Loja", owner));
+        storeId = store.getId();
+        Tag tagA = em.persist(Tag.builder().name("tag-a").build());
+        Tag tagB = em.persist(Tag.builder().name("tag-b").build());
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = em.persist(Product.builder()
+                    .name("Produto " + i).price(10.0 + i).quantity(1)
+                    .createdAt(LocalDateTime.now().minusMinutes(i))
+                    .store(store)
+                    .build());
+            em.persist(ProductTag.builder().tag(tagA).product(product).build());
+            em.persist(ProductTag.builder().tag(tagB).product(product).build());
+        }
+
+        em.flush();
+        em.clear();
+        // a carga dos índices no start viu o banco vazio; relê as tabelas na transação do teste
+        tagIndex.rebuild();
+        facetIndex.rebuild();
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listProductsUsesConstantNumberOfQueries() {
+        ProductPageResponseDto page =
+                productService.listProducts(null, "price_asc", null, false, false, null, PRODUCTS);
+
+        assertThat(page.getItems()).hasSize(PRODUCTS);
+        assertThat(page.getItems()).allSatisfy(p -> assertThat(p.getStoreName()).isEqualTo("Loja"));
+        // produtos + nome da loja em um único SELECT, sem entidades gerenciadas
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void listProductsFilteredByTagUsesConstantNumberOfQueries() {
+        ProductPageResponseDto page =
+                productService.listProducts(null, null, List.of("tag-a"), false, false, null, PRODUCTS);
+
+        assertThat(page.getItems()).hasSize(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listProductsRequiringAllTagsOfAMissingTagSkipsTheQuery() {
+        ProductPageResponseDto page =
+                productService.listProducts(null, null, List.of("tag-a", "tag-c"), true, false, null, PRODUCTS);
+
+        assertThat(page.getItems()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void facetsOfTheFirstPageComeFromTheIndexesWithoutExtraQueries() {
+        ProductPageResponseDto page =
+                productService.listProducts(null, null, List.of("tag-a"), false, true, null, 10);
+
+        assertThat(page.getFacets().getTotal()).isEqualTo(PRODUCTS);
+        assertThat(page.getFacets().getTags()).extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("tag-a", PRODUCTS), tuple("tag-b", PRODUCTS));
+        // preços de 10 a 39: todos na primeira faixa; nenhum produto avaliado
+        assertThat(page.getFacets().getPrices().get(0).getCount()).isEqualTo(PRODUCTS);
+        assertThat(page.getFacets().getRatings().get(0).getCount()).isEqualTo(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getByStoreUsesConstantNumberOfQueries() {
+        List<ProductSummaryDto> products = productService.getByStore(storeId);
+
+        assertThat(products).hasSize(PRODUCTS);
+        assertThat(products).allSatisfy(p -> assertThat(p.getStoreName()).isEqualTo("Loja"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listingsFallBackToTheLegacyExternalImageUrlButNeverToADataUri() {
+        List<ProductSummaryDto> summaries = productService.getByStore(storeId);
+        Long externalId = summaries.get(0).getId();
+        Long dataUriId = summaries.get(1).getId();
+        em.find(Product.class, externalId).setImageUrl("https://cdn.example.com/a.png");
+        em.find(Product.class, dataUriId).setImageUrl("data:image/png;base64,iVBORw0KGgo=");
+        em.flush();
+        em.clear();
+
+        List<ProductSummaryDto> products = productService.getByStore(storeId);
+        ProductPageResponseDto page =
+                productService.listProducts(null, null, null, false, false, null, PRODUCTS);
+
+        for (List<ProductSummaryDto> listing : List.of(products, page.getItems())) {
+            assertThat(listing).filteredOn(p -> p.getId().equals(externalId))
+                    .singleElement()
+                    .satisfies(p -> {
+                        assertThat(p.getImageUrl()).isEqualTo("https://cdn.example.com/a.png");
+                        assertThat(p.getThumbnailUrl()).isNull();
+                    });
+            assertThat(listing).filteredOn(p -> p.getId().equals(dataUriId))
+                    .singleElement()
+                    .satisfies(p -> assertThat(p.getImageUrl()).isNull());
+        }
+    }
+
+    @Test
+    void getByIdLoadsTheFullProduct() {
+        Long id = productService.getByStore(storeId).get(0).getId();
+        statistics.clear();
+
+        ProductResponseDto product = productService.getById(id);
+
+        assertThat(product.getTags()).containsExactlyInAnyOrder("tag-a", "tag-b");
+        assertThat(product.getStoreName()).isEqualTo("Loja");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.dto.ProductRequestDto;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.shared.exception.ConflictException;
+import com.example.demo.shared.storage.ImageStore;
+
+/**
+ * Edição parcial (PATCH): só os campos enviados mudam e, com @DynamicUpdate, o UPDATE de product leva só
+ * essas colunas (mais a versão). O SQL é capturado por um StatementInspector do Hibernate.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.auth.service.ProductServiceTests$RecordingInspector")
+@Import({ProductService.class, ImageStore.class, CatalogCache.class, CatalogVersions.class,
+        TagIndex.class, FacetIndex.class, StoreStatsService.class, NoOpCacheManager.class})
+class ProductServiceTests {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ProductService productService;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Store store = em.persist(TestFixtures.store("Loja", em.persist(TestFixtures.owner())));
+        productId = em.persist(Product.builder()
+                .name("Caneca").price(10.0).quantity(1).description("Branca")
+                .createdAt(LocalDateTime.now())
+                .store(store)
+                .build()).getId();
+        em.flush();
+        em.clear();
+        RecordingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void patchChangesOnlyTheSentFieldsAndRejectsAStaleVersion() {
+        ProductRequestDto priceOnly = new ProductRequestDto();
+        priceOnly.setPrice(99.0);
+        priceOnly.setVersion(0L);
+
+        ProductResponseDto patched = productService.patch(productId, priceOnly, TestFixtures.OWNER_EMAIL);
+
+        assertThat(patched.getPrice()).isEqualTo(99.0);
+        assertThat(patched.getName()).isEqualTo("Caneca");
+        assertThat(patched.getDescription()).isEqualTo("Branca");
+        assertThat(patched.getQuantity()).isEqualTo(1);
+        assertThat(patched.getVersion()).isEqualTo(1L);
+        // a versão lida antes da edição já não vale
+        assertThatThrownBy(() -> productService.patch(productId, priceOnly, TestFixtures.OWNER_EMAIL))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void patchOfThePriceUpdatesOnlyThePriceColumn() {
+        ProductRequestDto priceOnly = new ProductRequestDto();
+        priceOnly.setPrice(99.0);
+        priceOnly.setVersion(0L);
+
+        productService.patch(productId, priceOnly, TestFixtures.OWNER_EMAIL);
+
+        assertThat(RecordingInspector.STATEMENTS)
+                .filteredOn(sql -> sql.startsWith("update product "))
+                .containsExactly("update product set price=?,version=? where id=? and version=?");
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase().replaceAll("\\s+", " ").trim());
+            return sql;
+        }
+    }
+}
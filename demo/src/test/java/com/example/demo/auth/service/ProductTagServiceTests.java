@@ -0,0 +1,73 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.domain.ProductTag;
+import com.example.demo.auth.repository.ProductRepository;
+import com.example.demo.auth.repository.ProductTagRepository;
+import com.example.demo.auth.repository.TagRepository;
+
+/**
+ * Duas requisições criando a mesma tag: a que perde a corrida em uk_tag_name relê a tag gravada pela outra
+ * em vez de falhar. Roda sem transação de teste para que a tag concorrente já esteja confirmada.
+ */
+@DataJpaTest
+@Import({CatalogCache.class, CatalogVersions.class, TagIndex.class, NoOpCacheManager.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductTagServiceTests {
+
+    @Autowired private ProductTagRepository productTags;
+    @Autowired private TagRepository tags;
+    @Autowired private ProductRepository products;
+    @Autowired private CatalogCache catalogCache;
+    @Autowired private TagIndex tagIndex;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+        productId = products.save(Product.builder()
+                .name("Caneca").price(10.0).quantity(1).createdAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    @Test
+    void rereadsTheTagWhenAnotherRequestCreatedItFirst() {
+        jdbc.update("INSERT INTO tag (name) VALUES ('cozinha')");
+        // a busca desta requisição aconteceu antes do commit da outra
+        TagRepository racing = mock(TagRepository.class, AdditionalAnswers.delegatesTo(tags));
+        doReturn(Optional.empty()).doAnswer(AdditionalAnswers.delegatesTo(tags)).when(racing).findByName(anyString());
+        ProductTagService service = new ProductTagService(productTags, racing, products, catalogCache, tagIndex,
+                transactionManager);
+
+        ProductTag created = new TransactionTemplate(transactionManager)
+                .execute(status -> service.createTag(productId, "cozinha"));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM tag", Integer.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM product_tag", Integer.class)).isEqualTo(1);
+    }
+}
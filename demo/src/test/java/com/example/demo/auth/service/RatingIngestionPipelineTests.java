@@ -0,0 +1,73 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.repository.PendingRatingDeltaRepository;
+import com.example.demo.auth.repository.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * O flush apaga só os deltas que somou: um voto que faz commit no meio do flush, mesmo com id menor
+ * que os já lidos, continua pendente para o próximo flush.
+ * Roda sem transação de teste para que o voto concorrente seja confirmado à parte.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RatingIngestionPipelineTests {
+
+    @Autowired private PendingRatingDeltaRepository pendingRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+    }
+
+    @Test
+    void voteCommittedDuringTheFlushIsKeptForTheNextOne() {
+        insertDelta(10);
+        insertDelta(20);
+
+        PendingRatingDeltaRepository racing = mock(PendingRatingDeltaRepository.class,
+                AdditionalAnswers.delegatesTo(pendingRepository));
+        TransactionTemplate otherTransaction = new TransactionTemplate(transactionManager);
+        otherTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // id 15 estava reservado por um voto que só faz commit entre a soma e o DELETE
+        doAnswer(invocation -> {
+            Object coalesced = pendingRepository.coalesce(invocation.getArgument(0));
+            otherTransaction.executeWithoutResult(status -> insertDelta(15));
+            return coalesced;
+        }).when(racing).coalesce(anyCollection());
+
+        RatingIngestionPipeline pipeline = new RatingIngestionPipeline(racing, productRepository,
+                mock(StoreStatsService.class), new SimpleMeterRegistry(), true);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> pipeline.recoverPending());
+
+        assertThat(jdbc.queryForList("SELECT id FROM pending_rating_delta", Long.class)).containsExactly(15L);
+    }
+
+    private void insertDelta(long id) {
+        jdbc.update("""
+                INSERT INTO pending_rating_delta (id, product_id, sum_delta, count_delta, d1, d2, d3, d4, d5)
+                VALUES (?, 1, 5, 1, 0, 0, 0, 0, 1)
+                """, id);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Import;
+
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.CursorPageResponseDto;
+import com.example.demo.auth.dto.StoreRequestDto;
+import com.example.demo.auth.dto.StoreResponseDto;
+import com.example.demo.auth.dto.StoreSummaryDto;
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.storage.ImageStore;
+
+/**
+ * Diretório público: páginas em ordem de nome seguindo o cursor até o fim, e busca por prefixo do nome
+ * (com % e _ tratados como texto). "Minhas lojas" sai do cache por dono, que a criação e a exclusão invalidam.
+ */
+@DataJpaTest
+@Import({StoreService.class, OwnerStores.class, StoreStatsService.class, ImageStore.class, CatalogCache.class,
+        CatalogVersions.class, ConcurrentMapCacheManager.class})
+class StoreServiceTests {
+
+    @TestConfiguration
+    @EnableCaching
+    static class Caching {}
+
+    @Autowired private TestEntityManager em;
+    @Autowired private StoreService storeService;
+    @Autowired private CacheManager cacheManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        // o contexto (e o cache) é compartilhado entre os testes, mas os dados de cada um são revertidos
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        owner = em.persist(TestFixtures.owner());
+        for (String name : new String[] {"Padaria", "Mercado", "Papelaria", "Mercado", "Pa_rque", "Açougue"}) {
+            em.persist(TestFixtures.store(name, owner));
+        }
+        em.flush();
+    }
+
+    @Test
+    void pagesFollowTheCursorInNameOrder() {
+        CursorPageResponseDto<StoreSummaryDto> first = storeService.findPublicDirectory(null, null, 4);
+        assertThat(first.getItems()).hasSize(4);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorPageResponseDto<StoreSummaryDto> second = storeService.findPublicDirectory(null, first.getNextCursor(), 4);
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.getNextCursor()).isNull();
+
+        assertThat(first.getItems()).extracting(StoreSummaryDto::getName)
+                .containsExactly("Açougue", "Mercado", "Mercado", "Pa_rque");
+        assertThat(second.getItems()).extracting(StoreSummaryDto::getName)
+                .containsExactly("Padaria", "Papelaria");
+    }
+
+    @Test
+    void searchesByNamePrefix() {
+        assertThat(storeService.findPublicDirectory("Pa", null, null).getItems())
+                .extracting(StoreSummaryDto::getName)
+                .containsExactly("Pa_rque", "Padaria", "Papelaria");
+        assertThat(storeService.findPublicDirectory("Pa_", null, null).getItems())
+                .extracting(StoreSummaryDto::getName)
+                .containsExactly("Pa_rque");
+        assertThatThrownBy(() -> storeService.findPublicDirectory(null, "!!", null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void directoryFallsBackToTheLegacyExternalImageUrlButNeverToADataUri() {
+        Store external = TestFixtures.store("Zebra", owner);
+        external.setImageUrl("https://cdn.example.com/z.png");
+        em.persist(external);
+        Store dataUri = TestFixtures.store("Zíper", owner);
+        dataUri.setImageUrl("data:image/png;base64,iVBORw0KGgo=");
+        em.persist(dataUri);
+        em.flush();
+
+        assertThat(storeService.findPublicDirectory("Z", null, null).getItems())
+                .extracting(StoreSummaryDto::getName, StoreSummaryDto::getImageUrl, StoreSummaryDto::getThumbnailUrl)
+                .containsExactly(tuple("Zebra", "https://cdn.example.com/z.png", null), tuple("Zíper", null, null));
+    }
+
+    @Test
+    void ownerStoresKeepExternalImageUrlsButNotDataUris() {
+        Store external = TestFixtures.store("Zebra", owner);
+        external.setImageUrl("https://cdn.example.com/z.png");
+        em.persist(external);
+        Store dataUri = TestFixtures.store("Zíper", owner);
+        dataUri.setImageUrl("data:image/png;base64,iVBORw0KGgo=");
+        em.persist(dataUri);
+        em.flush();
+
+        assertThat(storeService.findMyStores(TestFixtures.OWNER_EMAIL))
+                .filteredOn(store -> store.getName().startsWith("Z"))
+                .extracting(StoreResponseDto::getName, StoreResponseDto::getImageUrl)
+                .containsExactly(tuple("Zebra", "https://cdn.example.com/z.png"), tuple("Zíper", null));
+    }
+
+    @Test
+    void ownerStoresAreCachedAndInvalidatedByWrites() throws Exception {
+        assertThat(storeService.findMyStores(TestFixtures.OWNER_EMAIL)).hasSize(6)
+                .allSatisfy(store -> assertThat(store.getOwnerEmail()).isEqualTo(TestFixtures.OWNER_EMAIL));
+        // gravada por fora do serviço: a entrada em cache não vê esta loja
+        em.persist(TestFixtures.store("Sem aviso", owner));
+        assertThat(storeService.findMyStores(TestFixtures.OWNER_EMAIL)).hasSize(6);
+
+        StoreRequestDto dto = new StoreRequestDto();
+        dto.setName("Floricultura");
+        StoreResponseDto created = storeService.createStore(TestFixtures.OWNER_EMAIL, dto);
+        assertThat(storeService.findMyStores(TestFixtures.OWNER_EMAIL)).extracting(StoreResponseDto::getName)
+                .contains("Floricultura", "Sem aviso");
+
+        storeService.deleteStore(created.getId(), TestFixtures.OWNER_EMAIL, false);
+        assertThat(storeService.findMyStores(TestFixtures.OWNER_EMAIL)).hasSize(7);
+        assertThatThrownBy(() -> storeService.findMyStores("nobody@test.com"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.auth.domain.StoreStats;
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.ProductRequestDto;
+import com.example.demo.auth.dto.ProductResponseDto;
+import com.example.demo.auth.dto.RatingRequest;
+import com.example.demo.auth.repository.StoreRepository;
+import com.example.demo.auth.repository.StoreStatsRepository;
+import com.example.demo.shared.storage.ImageStore;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * store_stats acompanha criação, edição e exclusão de produtos por incremento,
+ * e a reconciliação recalcula a partir de product quando a linha se desvia. Votos síncronos não tocam a linha
+ * da loja: a avaliação média dela só muda na reconciliação.
+ */
+@DataJpaTest
+@Import({StoreStatsService.class, ProductService.class, ProductRatingService.class, RatingIngestionPipeline.class,
+        SimpleMeterRegistry.class, ImageStore.class, CatalogCache.class, CatalogVersions.class, TagIndex.class,
+        FacetIndex.class, NoOpCacheManager.class})
+class StoreStatsServiceTests {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private StoreStatsService storeStats;
+    @Autowired private ProductService productService;
+    @Autowired private ProductRatingService ratingService;
+    @Autowired private StoreStatsRepository statsRepository;
+    @Autowired private StoreRepository stores;
+    @Autowired private JdbcTemplate jdbc;
+
+    private Long storeId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(TestFixtures.owner());
+        storeId = em.persist(TestFixtures.store("Loja", owner)).getId();
+        storeStats.storeCreated(storeId);
+    }
+
+    @Test
+    void storeWithoutProductsOrVotesHasNoAverages() {
+        StoreStats stats = stats();
+        assertThat(stats.getProductCount()).isZero();
+        assertThat(stats.getAveragePrice()).isNull();
+        assertThat(stats.getAverageRating()).isNull();
+
+        assertThat(stores.findDirectory("%", Limit.of(1))).singleElement()
+                .satisfies(store -> assertThat(store.getAverageRating()).isNull());
+    }
+
+    @Test
+    void productWritesKeepTheStatsInStep() {
+        ProductResponseDto mug = productService.create(storeId, product("Caneca", 20.0, 5), TestFixtures.OWNER_EMAIL);
+        productService.create(storeId, product("Prato", 40.0, 3), TestFixtures.OWNER_EMAIL);
+
+        ProductRequestDto change = new ProductRequestDto();
+        change.setPrice(30.0);
+        change.setQuantity(7);
+        productService.patch(mug.getId(), change, TestFixtures.OWNER_EMAIL);
+
+        StoreStats stats = stats();
+        assertThat(stats.getProductCount()).isEqualTo(2);
+        assertThat(stats.getAveragePrice()).isEqualTo(35.0);
+        assertThat(stats.getStockSum()).isEqualTo(10);
+
+        productService.delete(mug.getId(), TestFixtures.OWNER_EMAIL);
+        stats = stats();
+        assertThat(stats.getProductCount()).isEqualTo(1);
+        assertThat(stats.getAveragePrice()).isEqualTo(40.0);
+        assertThat(stats.getStockSum()).isEqualTo(3);
+    }
+
+    @Test
+    void reconciliationCorrectsDrift() {
+        productService.create(storeId, product("Caneca", 20.0, 5), TestFixtures.OWNER_EMAIL);
+        // estoque alterado por fora dos incrementos (como as reservas) e votos anteriores à tabela
+        jdbc.update("UPDATE product SET quantity = 2, rating_sum = 9, rating_count = 2 WHERE store_id = ?", storeId);
+
+        storeStats.reconcile();
+
+        StoreStats stats = stats();
+        assertThat(stats.getProductCount()).isEqualTo(1);
+        assertThat(stats.getStockSum()).isEqualTo(2);
+        assertThat(stats.getAverageRating()).isEqualTo(4.5);
+        assertThat(stats.getReconciledAt()).isNotNull();
+    }
+
+    @Test
+    void synchronousVotesLeaveTheStoreRatingToTheReconciliation() {
+        ProductResponseDto mug = productService.create(storeId, product("Caneca", 20.0, 5), TestFixtures.OWNER_EMAIL);
+        RatingRequest four = new RatingRequest();
+        four.setRating(4);
+
+        ratingService.rateProduct(mug.getId(), TestFixtures.OWNER_EMAIL, four);
+
+        assertThat(stats().getAverageRating()).isNull();
+        storeStats.reconcile();
+        assertThat(stats().getAverageRating()).isEqualTo(4.0);
+    }
+
+    private StoreStats stats() {
+        em.flush();
+        em.clear();
+        return statsRepository.findAllById(List.of(storeId)).get(0);
+    }
+
+    private static ProductRequestDto product(String name, double price, int quantity) {
+        ProductRequestDto dto = new ProductRequestDto();
+        dto.setName(name);
+        dto.setPrice(price);
+        dto.setQuantity(quantity);
+        return dto;
+    }
+}
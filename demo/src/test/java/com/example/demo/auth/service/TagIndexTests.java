@@ -0,0 +1,44 @@
+package com.example.demo.auth.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+class TagIndexTests {
+
+    private TagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagIndex(null);
+        index.added("Promo", 1L);
+        index.added("promo", 2L);
+        index.added("novo", 2L);
+        index.added("novo", 3L);
+    }
+
+    @Test
+    void anyMatchesTheUnionAndAllTheIntersection() {
+        assertArrayEquals(new int[] {1, 2, 3}, index.match(List.of("promo", "novo"), false).toArray());
+        assertArrayEquals(new int[] {2}, index.match(List.of("PROMO", "novo"), true).toArray());
+        assertTrue(index.match(List.of("promo", "inexistente"), true).isEmpty());
+    }
+
+    @Test
+    void publishedBitmapsAreNotChangedByLaterWrites() {
+        RoaringBitmap before = index.match(List.of("novo"), false);
+
+        index.removed("novo", 2L);
+        index.productRemoved(3L);
+
+        assertArrayEquals(new int[] {2, 3}, before.toArray());
+        assertEquals(0, index.count("novo"));
+        assertEquals(2, index.count("promo"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.auth.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.auth.domain.Role;
+import com.example.demo.auth.domain.Store;
+import com.example.demo.auth.domain.User;
+
+/**
+ * Dados comuns aos testes de serviço: usuário, loja e a limpeza das tabelas usada pelos testes
+ * que rodam sem transação de teste (e por isso não têm rollback entre um teste e outro).
+ */
+final class TestFixtures {
+
+    static final String OWNER_EMAIL = "owner@test.com";
+
+    // Filhas antes das mães, para não esbarrar nas chaves estrangeiras
+    private static final String[] TABLES = {
+        "product_tag", "tag", "product_rating", "product_comments", "pending_rating_delta",
+        "inventory_reservation", "store_stats", "product", "stores", "users"
+    };
+
+    private TestFixtures() {}
+
+    static User owner() {
+        return user(OWNER_EMAIL);
+    }
+
+    // O CPF é único: deriva do email para que vários usuários convivam no mesmo teste
+    static User user(String email) {
+        return User.builder()
+                .email(email).password("x").name("User").lastName("Test")
+                .cpf(email).phone("0").role(Role.USER)
+                .build();
+    }
+
+    static Store store(String name, User owner) {
+        return Store.builder().name(name).owner(owner).build();
+    }
+
+    static void clearTables(JdbcTemplate jdbc) {
+        for (String table : TABLES) {
+            jdbc.update("DELETE FROM " + table);
+        }
+    }
+}
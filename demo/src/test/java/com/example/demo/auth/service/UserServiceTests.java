@@ -0,0 +1,120 @@
+package com.example.demo.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.auth.domain.User;
+import com.example.demo.auth.dto.UserRequestDto;
+import com.example.demo.auth.repository.UserRepository;
+import com.example.demo.shared.security.AuthenticationCache;
+import com.example.demo.shared.security.JwtAuthenticationFilter;
+import com.example.demo.shared.security.JwtService;
+import com.example.demo.shared.security.TokenVersionRegistry;
+
+/**
+ * Alterar um usuário tira as autenticações dele do cache e revoga os tokens sem estado só depois do commit:
+ * uma requisição que leu o usuário antigo antes do commit e o gravou no cache também é descartada, e um token
+ * emitido antes do commit volta a passar pela consulta ao banco.
+ * Roda sem transação de teste para que o commit da alteração aconteça de fato.
+ */
+@DataJpaTest
+@Import({UserService.class, JwtService.class, AuthenticationCache.class, TokenVersionRegistry.class,
+        BCryptPasswordEncoder.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserServiceTests {
+
+    private static final Date TOMORROW = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+
+    @Autowired private UserService userService;
+    @Autowired private UserRepository users;
+    @Autowired private AuthenticationCache authenticationCache;
+    @Autowired private JwtService jwtService;
+    @Autowired private TokenVersionRegistry tokenVersions;
+    @Autowired private JdbcTemplate jdbc;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        TestFixtures.clearTables(jdbc);
+        owner = users.save(TestFixtures.owner());
+    }
+
+    @Test
+    void updateInvalidatesCachedAuthenticationsAfterCommit() {
+        UserDetails before = userDetails(TestFixtures.OWNER_EMAIL, "USER");
+        authenticationCache.put("token", before, TOMORROW);
+
+        UserRequestDto change = new UserRequestDto();
+        change.setName("Outro");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUserByAdmin(owner.getId(), change);
+            // requisição concorrente que leu o usuário antes do commit e grava a leitura no cache
+            authenticationCache.put("token", before, TOMORROW);
+            assertThat(authenticationCache.get("token")).isNotNull();
+        });
+
+        assertThat(authenticationCache.get("token")).isNull();
+    }
+
+    @Test
+    void tokensIssuedBeforeTheCommitFallBackToTheDatabaseLookup() throws Exception {
+        // login durante a alteração: o papel ainda é o antigo, então a versão também tem de ser a antiga
+        String[] token = new String[1];
+        UserRequestDto change = new UserRequestDto();
+        change.setName("Outro");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUserByAdmin(owner.getId(), change);
+            token[0] = jwtService.generateToken(TestFixtures.OWNER_EMAIL, owner.getId(), "USER",
+                    tokenVersions.current(owner.getId()));
+        });
+
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(TestFixtures.OWNER_EMAIL))
+                .thenReturn(userDetails(TestFixtures.OWNER_EMAIL, "ADMIN"));
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+                jwtService, userDetailsService, authenticationCache, tokenVersions, true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token[0]);
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            verify(userDetailsService).loadUserByUsername(TestFixtures.OWNER_EMAIL);
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
+                    .extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static UserDetails userDetails(String email, String role) {
+        return org.springframework.security.core.userdetails.User
+                .withUsername(email).password("").roles(role).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.shared.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Substitui fulltext_match nos testes: o H2 não tem MATCH ... AGAINST.
+ * A relevância vira 1 / tamanho do nome (uma dízima, com empates entre nomes do mesmo tamanho);
+ * a descrição e a consulta só entram na expressão para manter os parâmetros.
+ * Registrado depois de FullTextFunctionContributor (ordinal maior), então prevalece.
+ */
+public class H2FullTextFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                FullTextFunctionContributor.FULLTEXT_MATCH,
+                "(cast(1 as double) / char_length(?1) + 0 * coalesce(char_length(?2), 0) + 0 * char_length(?3))",
+                functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+
+    @Override
+    public int ordinal() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.shared.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.auth.domain.Product;
+import com.example.demo.auth.repository.ProductRepository;
+
+/**
+ * Nomes legados mais longos que Tag.NAME_LENGTH são cortados igual no dicionário e no JOIN,
+ * então a associação chega a product_tag e a tabela antiga só então é removida.
+ */
+@DataJpaTest
+@Import(TagTableMigrator.class)
+class TagTableMigratorTests {
+
+    @Autowired private TagTableMigrator migrator;
+    @Autowired private ProductRepository products;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    void migratesLongLegacyNamesBeforeDroppingTheTable() throws Exception {
+        Long productId = products.save(Product.builder()
+                .name("Caneca").price(10.0).quantity(1).createdAt(LocalDateTime.now())
+                .build()).getId();
+        jdbc.execute("CREATE TABLE product_tags (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "product_id BIGINT, tag_name VARCHAR(255))");
+        jdbc.update("INSERT INTO product_tags (product_id, tag_name) VALUES (?, ?), (?, ?)",
+                productId, " cozinha ", productId, "x".repeat(150));
+
+        migrator.run(null);
+
+        assertThat(jdbc.queryForList("SELECT t.name FROM product_tag pt JOIN tag t ON t.id = pt.tag_id", String.class))
+                .containsExactlyInAnyOrder("cozinha", "x".repeat(100));
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                + "WHERE UPPER(table_name) = 'PRODUCT_TAGS'", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.shared.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Uma autenticação em cache vale até o fim do token, mas nunca além do teto (max-ttl), e some quando o
+ * usuário é invalidado.
+ */
+class AuthenticationCacheTests {
+
+    private static final Date TOMORROW = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AuthenticationCache cache = new AuthenticationCache(100, Duration.ofMinutes(5), nanos::get);
+
+    @Test
+    void entriesNeverOutliveTheMaxTtlEvenIfTheTokenDoes() {
+        cache.put("token", user("ana@test.com"), TOMORROW);
+
+        nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+        assertThat(cache.get("token")).isNotNull();
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void invalidateUserRemovesOnlyThatUsersTokens() {
+        cache.put("token-a", user("ana@test.com"), TOMORROW);
+        cache.put("token-b", user("bia@test.com"), TOMORROW);
+
+        cache.invalidateUser("ana@test.com");
+
+        assertThat(cache.get("token-a")).isNull();
+        assertThat(cache.get("token-b")).isNotNull();
+    }
+
+    private static UserDetails user(String email) {
+        return User.withUsername(email).password("").roles("USER").build();
+    }
+}
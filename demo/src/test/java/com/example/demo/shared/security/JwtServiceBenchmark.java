@@ -0,0 +1,83 @@
+package com.example.demo.shared.security;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Benchmark JMH da validação de tokens por requisição, com 8 threads concorrentes.
+ * legacyFilterPath reproduz o caminho antigo do filtro (extractUsername + isTokenValid, cada parse
+ * montando um parser novo); singleParse usa JwtService.validate com o parser compartilhado.
+ * Execução: mvn test-compile e depois rodar main() com o classpath de teste.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtServiceBenchmark {
+
+    private Key key;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        jwtService = new JwtService(key, 86400000);
+        token = jwtService.generateToken("user@test.com");
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyParse().getSubject();
+        return username.equals(legacyParse().getSubject())
+                && !legacyParse().getExpiration().before(new java.util.Date());
+    }
+
+    @Benchmark
+    public boolean sharedParserThreeParses() {
+        String username = jwtService.extractUsername(token);
+        return jwtService.isTokenValid(token, username);
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return jwtService.validate(token);
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
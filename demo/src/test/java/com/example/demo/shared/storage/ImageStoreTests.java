@@ -0,0 +1,74 @@
+package com.example.demo.shared.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.shared.exception.BadRequestException;
+import com.example.demo.shared.exception.NotFoundException;
+
+class ImageStoreTests {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path dir;
+
+    private ImageStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ImageStore(dir.toString(), 1024);
+    }
+
+    @Test
+    void identicalContentIsStoredOnceUnderItsHash() throws Exception {
+        String first = store.store(new ByteArrayInputStream(PNG));
+        String second = store.store(new ByteArrayInputStream(PNG));
+
+        assertEquals(first, second);
+        assertTrue(ImageStore.isValidHash(first));
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.transferTo(store.locate(first), Channels.newChannel(out));
+        assertEquals(PNG.length, out.size());
+        assertEquals(ImageType.PNG, store.typeOf(store.locate(first)));
+    }
+
+    @Test
+    void dataUriAndImageUrlResolveToTheSameHash() {
+        String dataUri = "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG);
+
+        String hash = store.resolveReference(dataUri);
+
+        assertEquals(hash, store.resolveReference(ImageStore.URL_PREFIX + hash));
+        assertNull(store.resolveReference("https://cdn.example.com/p.png"));
+    }
+
+    @Test
+    void rejectsNonImagesAndOversizedUploadsWithoutLeavingFiles() throws Exception {
+        assertThrows(BadRequestException.class, () -> store.store(new ByteArrayInputStream("<html>".getBytes())));
+        assertThrows(BadRequestException.class, () -> store.store(new ByteArrayInputStream(new byte[2048])));
+        assertThrows(NotFoundException.class, () -> store.locate("../../etc/passwd"));
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            assertEquals(0, files.filter(Files::isRegularFile).count());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.shared.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.demo.shared.exception.BadRequestException;
+
+class ThumbnailServiceTests {
+
+    @TempDir
+    Path dir;
+
+    private ImageStore imageStore;
+    private String hash;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageStore = new ImageStore(dir.resolve("images").toString(), 10_000_000);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "png", png);
+        hash = imageStore.store(new ByteArrayInputStream(png.toByteArray()));
+    }
+
+    @Test
+    void resizesToTheRequestedWidthKeepingAspectRatio() throws Exception {
+        ThumbnailService thumbnails = new ThumbnailService(imageStore, dir.resolve("thumbs").toString(), 10_000_000);
+
+        BufferedImage thumbnail = ImageIO.read(thumbnails.thumbnail(hash, 160).toFile());
+
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(120, thumbnail.getHeight());
+        assertThrows(BadRequestException.class, () -> thumbnails.thumbnail(hash, 123));
+    }
+
+    @Test
+    void concurrentRequestsShareOneRenderedFile() throws Exception {
+        ThumbnailService thumbnails = new ThumbnailService(imageStore, dir.resolve("thumbs").toString(), 10_000_000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Path>> calls = IntStream.range(0, 16)
+                    .<Callable<Path>>mapToObj(i -> () -> thumbnails.thumbnail(hash, 320))
+                    .toList();
+            List<Path> results = pool.invokeAll(calls).stream().map(this::get).distinct().toList();
+
+            assertEquals(1, results.size());
+            try (var files = Files.list(dir.resolve("thumbs"))) {
+                assertEquals(1, files.count());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedThumbnailsBeyondTheSizeLimit() throws Exception {
+        ThumbnailService probe = new ThumbnailService(imageStore, dir.resolve("probe").toString(), 10_000_000);
+        long limit = Files.size(probe.thumbnail(hash, 160)) + Files.size(probe.thumbnail(hash, 640));
+
+        ThumbnailService thumbnails = new ThumbnailService(imageStore, dir.resolve("thumbs").toString(), limit);
+        Path small = thumbnails.thumbnail(hash, 160);
+        Path medium = thumbnails.thumbnail(hash, 320);
+        thumbnails.thumbnail(hash, 160);
+        Path large = thumbnails.thumbnail(hash, 640);
+
+        assertFalse(Files.exists(medium));
+        assertTrue(Files.exists(small));
+        assertTrue(Files.exists(large));
+    }
+
+    @Test
+    void rejectsSourcesWhoseDimensionsExceedThePixelLimitWithoutDecodingThem() {
+        // só o cabeçalho: 100000 x 100000 pixels declarados em poucos bytes
+        String huge = imageStore.store(new ByteArrayInputStream(pngHeader(100_000, 100_000)));
+        ThumbnailService thumbnails = new ThumbnailService(imageStore, dir.resolve("thumbs").toString(), 10_000_000);
+
+        BadRequestException error = assertThrows(BadRequestException.class, () -> thumbnails.thumbnail(huge, 160));
+        assertTrue(error.getMessage().contains("100000x100000"));
+    }
+
+    @Test
+    void openRendersAgainWhenTheFileWasEvictedAndStaysReadableAfterwards() throws Exception {
+        ThumbnailService thumbnails = new ThumbnailService(imageStore, dir.resolve("thumbs").toString(), 10_000_000);
+        Path file = thumbnails.thumbnail(hash, 160);
+        Files.delete(file);
+
+        try (FileChannel channel = thumbnails.open(hash, 160)) {
+            long size = channel.size();
+            assertTrue(size > 0);
+            // o canal aberto segue legível mesmo que o descarte apague o arquivo durante o envio
+            Files.delete(file);
+            assertEquals(size, channel.read(ByteBuffer.allocate((int) size), 0));
+        }
+    }
+
+    private static byte[] pngHeader(int width, int height) {
+        ByteBuffer ihdr = ByteBuffer.allocate(17)
+                .put("IHDR".getBytes(StandardCharsets.US_ASCII))
+                .putInt(width).putInt(height)
+                .put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0);
+        CRC32 crc = new CRC32();
+        crc.update(ihdr.array());
+        return ByteBuffer.allocate(8 + 4 + 17 + 4)
+                .put(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})
+                .putInt(13).put(ihdr.array()).putInt((int) crc.getValue())
+                .array();
+    }
+
+    private Path get(Future<Path> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 const API_URL = "http://localhost:8080/api/comments";
 
 export const CommentService = {
-  getComments: async (productId) => {
+  getCommentsPage: async (productId, cursor) => {
     try {
-      const response = await fetch(`${API_URL}/product/${productId}`);
+      const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+      const response = await fetch(`${API_URL}/product/${productId}${query}`);
       if (!response.ok) {
         throw new Error("Erro ao buscar comentários");
       }
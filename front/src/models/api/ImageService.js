@@ -0,0 +1,14 @@
+const API_ORIGIN = "http://localhost:8080";
+
+export const ImageService = {
+
+  // Imagens do backend chegam como /api/images/{hash}; data URIs e URLs externas são usadas como vieram
+  resolve(url) {
+    return url && url.startsWith("/api/") ? `${API_ORIGIN}${url}` : url;
+  },
+
+  // Miniatura quando existir (imagens já migradas), senão a imagem original
+  thumbnail(item) {
+    return this.resolve(item.thumbnailUrl || item.imageUrl);
+  },
+};
@@ -1,12 +1,40 @@
 const URL_BASE = "http://localhost:8080/api/products";
 
 export const ProductService = {
-  async getAllProducts() {
-    const response = await fetch(URL_BASE);
+  // tagMode "all" exige todas as tags; o padrão ("any") aceita qualquer uma.
+  // Com facets, a primeira página traz as contagens por tag, faixa de preço e avaliação.
+  async getProductsPage({ search, sortBy, tags, tagMode, facets, cursor, size } = {}) {
+    const params = new URLSearchParams();
+    if (search) params.append("search", search);
+    if (sortBy) params.append("sortBy", sortBy);
+    if (tags) tags.forEach((t) => params.append("tags", t));
+    if (tagMode) params.append("tagMode", tagMode);
+    if (facets) params.append("facets", "true");
+    if (cursor) params.append("cursor", cursor);
+    if (size) params.append("size", size);
+
+    const query = params.toString();
+    const response = await fetch(query ? `${URL_BASE}?${query}` : URL_BASE);
     if (!response.ok) throw new Error("Erro ao carregar produtos");
 
     const data = await response.json();
-    return data.map((p) => ({ ...p, rating: p.averageRating || 0 }));
+    return {
+      items: data.items.map((p) => ({ ...p, rating: p.averageRating || 0 })),
+      nextCursor: data.nextCursor,
+      facets: data.facets,
+    };
+  },
+
+  async getAllProducts(options) {
+    const page = await this.getProductsPage(options);
+    return page.items;
+  },
+
+  // Produto completo (descrição, imagem original e tags); as listagens trazem só o resumo
+  async getById(id) {
+    const response = await fetch(`${URL_BASE}/${id}`);
+    if (!response.ok) throw new Error("Erro ao carregar produto");
+    return await response.json();
   },
 
   async getByStoreId(storeId) {
@@ -41,6 +69,22 @@ export const ProductService = {
       },
       body: JSON.stringify(productData),
     });
+    if (response.status === 409) throw new Error("O produto foi alterado por outra pessoa. Recarregue e tente novamente.");
+    if (!response.ok) throw new Error("Erro ao editar produto");
+    return await response.json();
+  },
+
+  // Envia só os campos alterados; com "version", responde 409 se o produto mudou desde a leitura
+  async patch(id, changes, token) {
+    const response = await fetch(`${URL_BASE}/${id}`, {
+      method: "PATCH",
+      headers: {
+        "Content-Type": "application/json",
+        Authorization: token ? `Bearer ${token}` : "",
+      },
+      body: JSON.stringify(changes),
+    });
+    if (response.status === 409) throw new Error("O produto foi alterado por outra pessoa. Recarregue e tente novamente.");
     if (!response.ok) throw new Error("Erro ao editar produto");
     return await response.json();
   },
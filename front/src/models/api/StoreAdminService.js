@@ -6,7 +6,7 @@ const API_URL = "http://localhost:8080/api/store";
  * Cada método lida com requisições HTTP e tratamento de erros.
  * @module StoreAdminService
  * @constant getAllStores - Busca todas as lojas (requer token).
- * @constant getAllStoresPublic - Busca todas as lojas publicamente (sem token).
+ * @constant getAllStoresPublic - Busca uma página do diretório público de lojas (sem token): { items, nextCursor }.
  * @constant remove - Deleta uma loja pelo ID (requer token).
  * @constant update - Atualiza uma loja pelo ID (requer token).
  * @returns {Object} Objeto com métodos para interagir com a API de lojas.
@@ -34,9 +34,16 @@ const StoreAdminService = {
     }
   },
 
-  getAllStoresPublic: async () => {
+  // search filtra pelo início do nome; cursor vem do nextCursor da página anterior
+  getAllStoresPublic: async ({ search, cursor, size } = {}) => {
     try {
-      const response = await fetch(`${API_URL}/public`, {
+      const params = new URLSearchParams();
+      if (search) params.append("search", search);
+      if (cursor) params.append("cursor", cursor);
+      if (size) params.append("size", size);
+
+      const query = params.toString();
+      const response = await fetch(query ? `${API_URL}/public?${query}` : `${API_URL}/public`, {
         method: "GET",
         headers: {
           "Content-Type": "application/json",
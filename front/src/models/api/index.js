@@ -2,4 +2,5 @@ export { AuthService } from './authService';
 export { getAllUsers, getUserById, updateUser, deleteUser} from './adminService';
 export { getCurrentUser, updateCurrentUser } from './userService';
 export { StoreService } from './StoreService';
-export { StoreAdminService } from './StoreAdminService';
\ No newline at end of file
+export { StoreAdminService } from './StoreAdminService';
+export { ImageService } from './ImageService';
@@ -58,16 +58,18 @@ const EditProductModal = ({ open, onClose, product, onProductUpdated }) => {
         price: numericPrice,
         imageUrl: form.imageUrl,
         discount: numericDiscount, // enviado
+        version: product.version,
       };
 
-      const saved = await ProductService.update(product.id, updatedProduct, token);
+      // PATCH: o formulário não tem estoque, então a quantidade não é enviada nem alterada
+      const saved = await ProductService.patch(product.id, updatedProduct, token);
 
       if (onProductUpdated) onProductUpdated(saved);
 
       onClose();
     } catch (err) {
       console.error("Erro ao editar produto:", err);
-      alert("Erro ao editar produto");
+      alert(err.message || "Erro ao editar produto");
     }
   };
 
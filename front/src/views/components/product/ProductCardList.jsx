@@ -10,7 +10,6 @@ import {
   IconButton,
   Button,
   Stack,
-  Chip,
 } from "@mui/material";
 import AddIcon from "@mui/icons-material/Add";
 import EditIcon from "@mui/icons-material/Edit";
@@ -19,6 +18,7 @@ import CommentIcon from "@mui/icons-material/Comment";
 import Rating from "@mui/material/Rating";
 
 import { ProductService } from "../../../models/api/ProductService";
+import { ImageService } from "../../../models/api/ImageService";
 import { CreateProductModal } from "../../components/productmodal/CreateProductModal";
 import { EditProductModal } from "../../components/productmodal/EditProductModal";
 import { ProductCommentModal } from "../../components/productcommentmodal/ProductCommentModal";
@@ -62,9 +62,14 @@ const ProductCardList = ({ storeId, canEdit }) => {
     }
   };
 
-  const handleEdit = (product) => {
-    setSelectedProduct(product);
-    setOpenEditModal(true);
+  const handleEdit = async (product) => {
+    try {
+      setSelectedProduct(await ProductService.getById(product.id));
+      setOpenEditModal(true);
+    } catch (error) {
+      console.error(error);
+      alert("Erro ao carregar produto");
+    }
   };
 
   const handleProductCreated = (newProduct) => {
@@ -141,7 +146,7 @@ const ProductCardList = ({ storeId, canEdit }) => {
                 <CardMedia
                   component="img"
                   height="160"
-                  image={product.imageUrl || "/default-product.jpg"}
+                  image={ImageService.thumbnail(product) || "/default-product.jpg"}
                   alt={product.name}
                 />
                 <CardContent>
@@ -213,16 +218,6 @@ const ProductCardList = ({ storeId, canEdit }) => {
                       )}
                     </Box>
 
-                  <Typography variant="body2" color="text.secondary" sx={{ mt: 1 }}>
-                    {product.description}
-                  </Typography>
-                  {product.tags && product.tags.length > 0 && (
-                    <Box sx={{ mt: 1, display: "flex", flexWrap: "wrap", gap: 0.5 }}>
-                      {product.tags.map((tag) => (
-                        <Chip key={tag.id || tag} label={tag.name || tag} size="small" />
-                      ))}
-                    </Box>
-                  )}
                 </CardContent>
               </Card>
             </Grid>
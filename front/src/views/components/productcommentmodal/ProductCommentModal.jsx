@@ -24,16 +24,19 @@ const style = {
 
 export const ProductCommentModal = ({ open, onClose, productId }) => {
   const [comments, setComments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [newComment, setNewComment] = useState("");
   const [loading, setLoading] = useState(true);
   const [creating, setCreating] = useState(false);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     const fetchComments = async () => {
       setLoading(true);
       try {
-        const data = await CommentService.getComments(productId);
-        setComments(data);
+        const page = await CommentService.getCommentsPage(productId);
+        setComments(page.items);
+        setNextCursor(page.nextCursor);
       } catch (error) {
         console.error(error);
         alert("Erro ao carregar comentários");
@@ -45,12 +48,27 @@ export const ProductCommentModal = ({ open, onClose, productId }) => {
     if (open) fetchComments();
   }, [open, productId]);
 
+  // Os comentários vêm do mais novo para o mais antigo; cada página continua do cursor da anterior
+  const handleLoadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await CommentService.getCommentsPage(productId, nextCursor);
+      setComments((prev) => [...prev, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error(error);
+      alert("Erro ao carregar comentários");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleCreate = async () => {
     if (!newComment) return;
     setCreating(true);
     try {
       const created = await CommentService.createComment(productId, { comment: newComment });
-      setComments((prev) => [...prev, created]);
+      setComments((prev) => [created, ...prev]);
       setNewComment("");
     } catch (error) {
       console.error(error);
@@ -80,6 +98,11 @@ export const ProductCommentModal = ({ open, onClose, productId }) => {
                 <Typography>{c.comment}</Typography>
               </Box>
             ))}
+            {nextCursor && (
+              <Button onClick={handleLoadMore} disabled={loadingMore}>
+                {loadingMore ? "Carregando..." : "Carregar mais"}
+              </Button>
+            )}
           </Stack>
         )}
 
@@ -63,16 +63,21 @@ export function EditProductModal({ open, onClose, product, onProductUpdated }) {
 
     setLoading(true);
     try {
-      const payload = {
+      const values = {
         name: form.name,
         price: Number(form.price),
         quantity: Number(form.quantity),
         description: form.description,
         imageUrl: form.imageUrl,
-        discount: form.discount === "" ? null : Number(form.discount),
+        // no PATCH um campo ausente não muda; desconto apagado vira 0 (sem desconto)
+        discount: form.discount === "" ? 0 : Number(form.discount),
       };
 
-      const updated = await ProductService.update(product.id, payload, token);
+      // PATCH só com os campos alterados; "version" faz o servidor responder 409 se o produto mudou desde a leitura
+      const changes = Object.fromEntries(
+        Object.entries(values).filter(([field, value]) => value !== (product[field] ?? (field === "discount" ? 0 : "")))
+      );
+      const updated = await ProductService.patch(product.id, { ...changes, version: product.version }, token);
 
       // chama callback do pai com produto atualizado
       if (onProductUpdated) onProductUpdated(updated);
@@ -80,7 +85,7 @@ export function EditProductModal({ open, onClose, product, onProductUpdated }) {
       onClose();
     } catch (err) {
       console.error("Erro ao editar produto:", err);
-      alert("Erro ao editar produto");
+      alert(err.message || "Erro ao editar produto");
     } finally {
       setLoading(false);
     }
@@ -14,6 +14,7 @@ import {
 } from "@mui/material";
 import { Edit, Delete } from "@mui/icons-material";
 import { StoreService } from "../../../models/api/StoreService";
+import { ImageService } from "../../../models/api/ImageService";
 import { useNavigate } from "react-router-dom";
 import styles from "./StoreForm.module.css"; 
 
@@ -173,7 +174,7 @@ const StoreForm = () => {
                 </Typography>
                 {store.imageUrl && (
                   <img
-                    src={store.imageUrl}
+                    src={ImageService.thumbnail(store)}
                     alt={store.name}
                     style={{
                       width: "100%",
@@ -14,6 +14,7 @@ import {
   Stack,
 } from "@mui/material";
 import { StoreAdminService } from "../../../models/api/StoreAdminService";
+import { ImageService } from "../../../models/api/ImageService";
 import styles from "./HomePage.module.css";
 
 const ITEMS_PER_PAGE = 8;
@@ -22,40 +23,60 @@ const HomePage = () => {
   const [stores, setStores] = useState([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
+  // cursors[i] é o cursor da página i + 1 (a primeira página não tem cursor)
+  const [cursors, setCursors] = useState([null]);
   const [currentPage, setCurrentPage] = useState(1);
+  const [nextCursor, setNextCursor] = useState(null);
   const [searchTerm, setSearchTerm] = useState("");
+  const [search, setSearch] = useState("");
   const navigate = useNavigate();
 
+  // A busca vai para o servidor (prefixo do nome) só depois de uma pausa na digitação
   useEffect(() => {
+    const timer = setTimeout(() => {
+      const term = searchTerm.trim();
+      if (term === search) return;
+      setSearch(term);
+      setCursors([null]);
+      setCurrentPage(1);
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm, search]);
+
+  useEffect(() => {
+    // Descarta a resposta de uma página que já não é a atual
+    let cancelled = false;
     const fetchStores = async () => {
       setLoading(true);
       setError(null);
       try {
-        const data = await StoreAdminService.getAllStoresPublic();
-        setStores(data);
+        const page = await StoreAdminService.getAllStoresPublic({
+          search,
+          cursor: cursors[currentPage - 1],
+          size: ITEMS_PER_PAGE,
+        });
+        if (cancelled) return;
+        setStores(page.items);
+        setNextCursor(page.nextCursor);
       } catch (err) {
+        if (cancelled) return;
         console.error("Erro ao buscar lojas:", err);
         setError("Erro ao carregar lojas.");
       } finally {
-        setLoading(false);
+        if (!cancelled) setLoading(false);
       }
     };
 
     fetchStores();
-  }, []);
-
-  const filteredStores = stores.filter((store) =>
-    store.name.toLowerCase().includes(searchTerm.toLowerCase())
-  );
-
-  const indexOfLastStore = currentPage * ITEMS_PER_PAGE;
-  const indexOfFirstStore = indexOfLastStore - ITEMS_PER_PAGE;
-  const visibleStores = filteredStores.slice(
-    indexOfFirstStore,
-    indexOfLastStore
-  );
+    return () => {
+      cancelled = true;
+    };
+  }, [search, cursors, currentPage]);
 
-  const totalPages = Math.ceil(filteredStores.length / ITEMS_PER_PAGE);
+  const goToNextPage = () => {
+    setCursors((previous) => [...previous.slice(0, currentPage), nextCursor]);
+    setCurrentPage(currentPage + 1);
+  };
 
   const handleOpenStore = (storeId) => {
     navigate(`/store/${storeId}`);
@@ -79,10 +100,7 @@ const HomePage = () => {
         label="Buscar loja"
         variant="outlined"
         value={searchTerm}
-        onChange={(e) => {
-          setSearchTerm(e.target.value);
-          setCurrentPage(1);
-        }}
+        onChange={(e) => setSearchTerm(e.target.value)}
         sx={{ mb: 4 }}
         className={styles.searchField}
       />
@@ -97,7 +115,7 @@ const HomePage = () => {
       )}
 
       <Grid container spacing={4} justifyContent="center">
-        {visibleStores.map((store) => (
+        {stores.map((store) => (
           <Grid item xs={12} sm={6} md={5} key={store.id}>
             <Card
               className={styles.storeCard}
@@ -114,15 +132,13 @@ const HomePage = () => {
                 onClick={() => handleOpenStore(store.id)}
                 sx={{ display: "flex", flexDirection: "column" }}
               >
-                {store.imageUrl && (
-                  <CardMedia
-                    component="img"
-                    height="200"
-                    image={store.imageUrl}
-                    alt={store.name}
-                    sx={{ objectFit: "cover", width: "100%" }}
-                  />
-                )}
+                <CardMedia
+                  component="img"
+                  height="200"
+                  image={ImageService.thumbnail(store) || "/default-store.jpg"}
+                  alt={store.name}
+                  sx={{ objectFit: "cover", width: "100%" }}
+                />
                 <CardContent>
                   <Stack
                     direction="row"
@@ -170,6 +186,15 @@ const HomePage = () => {
       </Grid>
 
       <Grid container spacing={2} justifyContent="center" sx={{ mt: 3 }}>
+        <Button
+          className={styles.paginationButton}
+          variant="outlined"
+          disabled={currentPage === 1}
+          onClick={() => setCurrentPage(1)}
+          sx={{ mr: 1 }}
+        >
+          Início
+        </Button>
         <Button
           className={styles.paginationButton}
           variant="contained"
@@ -183,13 +208,15 @@ const HomePage = () => {
           sx={{ mx: 2, display: "flex", alignItems: "center" }}
           className={styles.paginationText}
         >
-          {currentPage} / {totalPages}
+          {/* O cursor não traz o total; só dá para saber se existe uma próxima página */}
+          Página {currentPage}
+          {nextCursor ? " · há mais lojas" : " · última página"}
         </Typography>
         <Button
           className={styles.paginationButton}
           variant="contained"
-          disabled={currentPage === totalPages || totalPages === 0}
-          onClick={() => setCurrentPage(currentPage + 1)}
+          disabled={!nextCursor}
+          onClick={goToNextPage}
         >
           Próximo
         </Button>
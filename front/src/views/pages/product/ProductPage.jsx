@@ -17,69 +17,95 @@ import {
   CircularProgress,
   Stack,
   Rating,
+  Button,
 } from "@mui/material";
 
 import { ProductService } from "../../../models/api/ProductService";
 import { TagService } from "../../../models/api/TagService";
+import { ImageService } from "../../../models/api/ImageService";
 
 import styles from "./ProductPage.module.css";
 
+// Valores do select → sortBy aceito por GET /api/products
+const SORT_PARAMS = {
+  "price-high": "price_desc",
+  "price-low": "price_asc",
+};
+
 const ProductPage = () => {
   const [products, setProducts] = useState([]);
-  const [filteredProducts, setFilteredProducts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [tags, setTags] = useState([]);
+  const [tagCounts, setTagCounts] = useState({});
   const [selectedTags, setSelectedTags] = useState([]);
+  const [searchTerm, setSearchTerm] = useState("");
   const [search, setSearch] = useState("");
   const [sort, setSort] = useState("");
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
-    const fetchData = async () => {
-      setLoading(true);
-      try {
-        const productsData = await ProductService.getAllProducts();
-        const tagsData = await TagService.getAllTags();
+    TagService.getAllTags().then(setTags).catch(console.error);
+  }, []);
 
-        const productsWithTags = productsData.map((product) => ({
-          ...product,
-          tags: tagsData.filter((t) => t.productId === product.id),
-        }));
+  // A busca vai para o servidor só depois de uma pausa na digitação
+  useEffect(() => {
+    const timer = setTimeout(() => setSearch(searchTerm.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
 
-        setProducts(productsWithTags);
-        setTags(tagsData);
-        setFilteredProducts(productsWithTags);
+  // Busca, ordenação e filtro por tag (produtos com todas as tags marcadas) são resolvidos no servidor,
+  // sobre o catálogo inteiro; a lista recomeça da primeira página a cada mudança
+  useEffect(() => {
+    // Descarta a resposta de um filtro que já não é o atual
+    let cancelled = false;
+    const fetchProducts = async () => {
+      try {
+        const page = await ProductService.getProductsPage({
+          search,
+          sortBy: SORT_PARAMS[sort],
+          tags: selectedTags,
+          tagMode: "all",
+          facets: true,
+        });
+        if (cancelled) return;
+        setProducts(page.items);
+        setNextCursor(page.nextCursor);
+        // Contagens do filtro atual (as facetas vêm com a chave da tag em minúsculas)
+        if (page.facets) {
+          setTagCounts(Object.fromEntries(page.facets.tags.map((f) => [f.value, f.count])));
+        }
       } catch (err) {
         console.error(err);
       } finally {
-        setLoading(false);
+        if (!cancelled) setLoading(false);
       }
     };
 
-    fetchData();
-  }, []);
-
-  useEffect(() => {
-    let tempProducts = [...products];
-
-    if (search) {
-      tempProducts = tempProducts.filter((p) =>
-        p.name.toLowerCase().includes(search.toLowerCase())
-      );
-    }
-
-    if (selectedTags.length > 0) {
-      tempProducts = tempProducts.filter((p) =>
-        p.tags.some((t) => selectedTags.includes(t.tagName))
-      );
+    fetchProducts();
+    return () => {
+      cancelled = true;
+    };
+  }, [search, sort, selectedTags]);
+
+  const loadMore = async () => {
+    setLoadingMore(true);
+    try {
+      const page = await ProductService.getProductsPage({
+        search,
+        sortBy: SORT_PARAMS[sort],
+        tags: selectedTags,
+        tagMode: "all",
+        cursor: nextCursor,
+      });
+      setProducts((previous) => [...previous, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
     }
-
-    if (sort === "date-newest") tempProducts.sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt));
-    else if (sort === "date-oldest") tempProducts.sort((a, b) => new Date(a.createdAt) - new Date(b.createdAt));
-    else if (sort === "price-high") tempProducts.sort((a, b) => b.price - a.price);
-    else if (sort === "price-low") tempProducts.sort((a, b) => a.price - b.price);
-
-    setFilteredProducts(tempProducts);
-  }, [search, selectedTags, sort, products]);
+  };
 
   const handleTagChange = (tagName) => {
     setSelectedTags((prev) =>
@@ -105,7 +131,7 @@ const ProductPage = () => {
                   onChange={() => handleTagChange(tag.tagName)}
                 />
               }
-              label={tag.tagName}
+              label={`${tag.tagName} (${tagCounts[tag.tagName.toLowerCase()] ?? 0})`}
               className={styles.checkboxLabel}
             />
           ))}
@@ -115,8 +141,8 @@ const ProductPage = () => {
           <Stack direction="row" spacing={2} sx={{ mb: 2 }}>
             <TextField
               label="Pesquisar"
-              value={search}
-              onChange={(e) => setSearch(e.target.value)}
+              value={searchTerm}
+              onChange={(e) => setSearchTerm(e.target.value)}
               fullWidth
               className={styles.textField}
             />
@@ -131,12 +157,12 @@ const ProductPage = () => {
           </Stack>
 
           <Grid container spacing={2}>
-            {filteredProducts.map((p) => (
+            {products.map((p) => (
               <Grid item xs={12} sm={6} md={4} key={p.id}>
                 <Card className={styles.card}>
                   <CardMedia
                     component="img"
-                    image={p.imageUrl || "/default-product.jpg"}
+                    image={ImageService.thumbnail(p) || "/default-product.jpg"}
                     alt={p.name}
                     className={styles.cardMedia}
                   />
@@ -181,25 +207,19 @@ const ProductPage = () => {
                         {p.storeName}
                       </Typography>
                     )}
-
-                    <Typography variant="body2" className={styles.productDescription}>
-                      {p.description}
-                    </Typography>
-
-                    {p.tags && p.tags.length > 0 && (
-                      <Box sx={{ mt: 1, display: "flex", flexWrap: "wrap" }}>
-                        {p.tags.map((t, idx) => (
-                          <Typography key={t.id || idx} className={styles.tag}>
-                            {t.tagName || "Sem nome"}
-                          </Typography>
-                        ))}
-                      </Box>
-                    )}
                   </CardContent>
                 </Card>
               </Grid>
             ))}
           </Grid>
+
+          {nextCursor && (
+            <Box sx={{ display: "flex", justifyContent: "center", mt: 3 }}>
+              <Button variant="contained" onClick={loadMore} disabled={loadingMore}>
+                {loadingMore ? "Carregando..." : "Carregar mais"}
+              </Button>
+            </Box>
+          )}
         </Box>
       </Stack>
     </Container>
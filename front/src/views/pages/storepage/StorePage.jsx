@@ -18,7 +18,7 @@ import {
   DialogActions,
 } from "@mui/material";
 
-import { StoreService, StoreAdminService } from "../../../models/api";
+import { StoreService, StoreAdminService, ImageService } from "../../../models/api";
 import { AuthContext } from "../../../models";
 import { ProductCardList } from "../../../views/components";
 import styles from "./StorePage.module.css";
@@ -108,7 +108,7 @@ const StorePage = () => {
         <CardMedia
           component="img"
           height="350"
-          image={store.imageUrl || "/default-store.jpg"}
+          image={ImageService.resolve(store.imageUrl) || "/default-store.jpg"}
           alt={store.name}
           className={styles.bannerImage}
         />